@@ -0,0 +1,12 @@
+package com.example.challenges.challenge01.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// o cache fica por fora da transacao: evict/put so acontecem depois do commit
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+}
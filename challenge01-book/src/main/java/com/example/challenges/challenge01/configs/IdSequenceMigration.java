@@ -0,0 +1,35 @@
+package com.example.challenges.challenge01.configs;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.challenges.challenge01.models.Book;
+
+// Livros gravados quando o id ainda era IDENTITY ficam abaixo do inicio da sequence nova: antes de aceitar
+// requisicoes, avanca a sequence para depois do maior id existente. O @DependsOn faz rodar depois do ddl-auto criar a sequence
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceMigration implements InitializingBean {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate("books", "books_seq", Book.ID_ALLOCATION_SIZE);
+    }
+
+    private void migrate(String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                Long.class, sequence);
+        // o Hibernate usa o bloco (valor - allocationSize, valor]: o bloco do proximo valor nao pode conter ids usados
+        if (maxId > 0 && next - allocationSize < maxId) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + allocationSize));
+        }
+    }
+}
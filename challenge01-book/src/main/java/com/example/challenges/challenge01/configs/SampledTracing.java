@@ -0,0 +1,125 @@
+package com.example.challenges.challenge01.configs;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// SQL (org.hibernate.SQL) em DEBUG so para 1 a cada N requisicoes; os loggers continuam em INFO para as demais.
+// Ligado por books.tracing.sample-every ou, em tempo de execucao, pela operacao sampleEvery do MBean
+// org.springframework.boot:type=Endpoint,name=Tracing (0 desliga; precisa de spring.jmx.enabled=true).
+// So JMX: este modulo nao tem Spring Security, entao nao ha endpoint HTTP que altere o log.
+// Primeiro filtro da requisicao: tudo o que ela executar, ate a resposta, entra no sorteio.
+@Component
+@JmxEndpoint(id = "tracing")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SampledTracing extends TurboFilter implements Filter, InitializingBean, DisposableBean {
+
+    static final List<String> TRACED_LOGGERS = List.of("org.hibernate.SQL");
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    @Value("${books.tracing.sample-every:0}")
+    private volatile int sampleEvery;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!begin()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            end();
+        }
+    }
+
+    // sorteia a requisicao que comeca na thread atual; quem recebe true chama end() no final
+    boolean begin() {
+        int every = sampleEvery;
+        if (every <= 0 || requests.getAndIncrement() % every != 0) {
+            return false;
+        }
+        attach();
+        SAMPLED.set(Boolean.TRUE);
+        return true;
+    }
+
+    void end() {
+        SAMPLED.remove();
+    }
+
+    // roda em toda chamada de log (inclusive isDebugEnabled): desligado, custa uma leitura volatil
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (sampleEvery <= 0 || level.levelInt != Level.DEBUG_INT || SAMPLED.get() == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String traced : TRACED_LOGGERS) {
+            if (name.startsWith(traced)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    @ReadOperation
+    public Map<String, Object> tracing() {
+        return Map.of("sampleEvery", sampleEvery, "loggers", TRACED_LOGGERS);
+    }
+
+    @WriteOperation
+    public void sampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(sampleEvery, 0);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        setContext(loggerContext);
+        setName("sampled-tracing");
+        attach();
+    }
+
+    // uma reconfiguracao do logback (refresh de configuracao, outra aplicacao subindo na mesma JVM) para e remove
+    // os turbo filters; a requisicao sorteada registra o filtro de novo
+    private void attach() {
+        if (!isStarted()) {
+            start();
+        }
+        ((LoggerContext) getContext()).getTurboFilterList().addIfAbsent(this);
+    }
+
+    @Override
+    public void destroy() {
+        ((LoggerContext) getContext()).getTurboFilterList().remove(this);
+        stop();
+    }
+}
@@ -12,6 +12,7 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOrigins("https://8080-codeanywhere-templates-j-jc0hdee2x9.app.codeanywhere.com/") // Substitua por seus domínios permitidos
                 .allowedMethods("GET", "POST", "PUT", "DELETE")
-                .allowedHeaders("*");
+                .allowedHeaders("*")
+                .exposedHeaders("ETag");
     }
 }
@@ -1,9 +1,15 @@
 package com.example.challenges.challenge01.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,11 +18,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.models.BookBatchResult;
+import com.example.challenges.challenge01.models.BookPage;
+import com.example.challenges.challenge01.services.BookBatchService;
 import com.example.challenges.challenge01.services.BookService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import jakarta.validation.Valid;
 
@@ -24,19 +40,49 @@ import jakarta.validation.Valid;
 @RequestMapping("/livros")
 public class BookController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookBatchService bookBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<Book>> findAll(){
         List<Book> list = bookService.findAll();
         return ResponseEntity.ok().body(list);
     }
 
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(){
+        ObjectWriter writer = objectMapper.writerFor(Book.class);
+        StreamingResponseBody body = out -> bookService.streamAll(book -> writeLine(writer, out, book));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    @GetMapping(value = "/pagina")
+    public ResponseEntity<BookPage> findPage(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size){
+        try {
+            return ResponseEntity.ok().body(bookService.findPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping(value = "/{id}")
-    public ResponseEntity<Book> findById(@PathVariable Long id){
+    public ResponseEntity<Book> findById(@PathVariable Long id, WebRequest request){
+        // o livro vem do cache por id, entao um If-None-Match igual responde 304 sem ir ao banco
         Book book = bookService.findById(id);
-        return ResponseEntity.ok().body(book);
+        String etag = etag(book.getVersion());
+        if(request.checkNotModified(etag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(book);
     }
     
     @PostMapping
@@ -48,13 +94,30 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(book);
     }
 
+    @PostMapping(value = "/lote", consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BookBatchResult> insertAll(InputStream body,
+            @RequestParam(value = "upsert", defaultValue = "false") Boolean upsert) throws IOException {
+        // aceita tanto um array JSON quanto NDJSON, lendo um livro por vez sem carregar o corpo inteiro
+        try (MappingIterator<Book> books = objectMapper.readerFor(Book.class).readValues(body)) {
+            return ResponseEntity.ok().body(bookBatchService.insertAll(books, upsert));
+        }
+    }
+
     @PutMapping(value = "/{id}")
-    public ResponseEntity<Book> update(@PathVariable Long id, @RequestBody @Valid Book book, BindingResult result){
+    public ResponseEntity<Book> update(@PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestBody @Valid Book book, BindingResult result){
         if(result.hasErrors()){
             return ResponseEntity.badRequest().build();
         }
-        bookService.update(id, book);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(book);
+        Book saved;
+        try{
+            saved = bookService.update(id, book, expectedVersion(ifMatch));
+        }catch(OptimisticLockingFailureException e){
+            // versao do If-Match diferente, ou outra escrita entre a leitura e o save: 412 como em /tarefas
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).eTag(etag(saved.getVersion())).body(book);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -62,4 +125,33 @@ public class BookController {
         bookService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-Match usa comparacao forte: "*" aceita qualquer versao, um ETag fraco ou invalido nunca confere
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // cai na versao inexistente abaixo
+            }
+        }
+        return -1L;
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream out, Book book) {
+        try {
+            out.write(writer.writeValueAsBytes(book));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -2,16 +2,23 @@ package com.example.challenges.challenge01.models;
 
 import java.io.Serializable;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.challenges.challenge01.models.validation.PastOrPresentYear;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Size;
 
 @Entity
@@ -19,8 +26,13 @@ import jakarta.validation.constraints.Size;
 public class Book implements Serializable{
     private static final long serialVersionUID = 1L;
 
+    // ids reservados em blocos: cada chamada a sequence cobre ID_ALLOCATION_SIZE inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // sequence em vez de IDENTITY: o id sai antes do insert, o que deixa o Hibernate agrupar os inserts em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotEmpty(message = "Titulo é obrigatório!")
@@ -34,9 +46,16 @@ public class Book implements Serializable{
     private String author;
 
     @NotNull(message = "Ano de publicação é obrigatorio!")
-    @PastOrPresent(message = "Ano de publicação deve ser no passado ou presente")
+    @PastOrPresentYear(message = "Ano de publicação deve ser no passado ou presente")
     private Integer yearOfPublication;
 
+    // muda a cada escrita e vira o ETag do livro; o default cobre os inserts feitos direto em SQL
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Book(long id, String title, String author, Integer yearOfPublication) {
         this.id = id;
         this.title = title;
@@ -71,6 +90,12 @@ public class Book implements Serializable{
     public void setYearOfPublication(Integer yearOfPublication) {
         this.yearOfPublication = yearOfPublication;
     }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 
     @Override
     public int hashCode() {
@@ -0,0 +1,5 @@
+package com.example.challenges.challenge01.models;
+
+public record BookBatchError(int row, String title, String message) {
+
+}
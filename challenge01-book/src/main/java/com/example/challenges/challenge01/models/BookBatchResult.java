@@ -0,0 +1,7 @@
+package com.example.challenges.challenge01.models;
+
+import java.util.List;
+
+public record BookBatchResult(int received, int written, List<BookBatchError> errors) {
+
+}
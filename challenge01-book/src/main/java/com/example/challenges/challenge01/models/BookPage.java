@@ -0,0 +1,7 @@
+package com.example.challenges.challenge01.models;
+
+import java.util.List;
+
+public record BookPage(List<Book> content, String nextCursor) {
+
+}
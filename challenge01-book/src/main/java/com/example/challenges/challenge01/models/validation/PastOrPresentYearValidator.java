@@ -0,0 +1,14 @@
+package com.example.challenges.challenge01.models.validation;
+
+import java.time.Year;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PastOrPresentYearValidator implements ConstraintValidator<PastOrPresentYear, Integer> {
+
+    @Override
+    public boolean isValid(Integer value, ConstraintValidatorContext context) {
+        return value == null || value <= Year.now().getValue();
+    }
+}
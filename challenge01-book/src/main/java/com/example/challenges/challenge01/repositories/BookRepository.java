@@ -1,10 +1,23 @@
 package com.example.challenges.challenge01.repositories;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.challenges.challenge01.models.Book;
 
+import jakarta.persistence.QueryHint;
+
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-    
-}
\ No newline at end of file
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAllOrderById();
+
+}
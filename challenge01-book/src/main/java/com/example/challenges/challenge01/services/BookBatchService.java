@@ -0,0 +1,191 @@
+package com.example.challenges.challenge01.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.models.BookBatchError;
+import com.example.challenges.challenge01.models.BookBatchResult;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+@Service
+@Timed("books.service")
+public class BookBatchService {
+
+    private static final String INSERT_SQL =
+            "insert into books (title, author, year_of_publication, id) values (?, ?, ?, ?)";
+
+    // MERGE ... USING em vez de MERGE ... KEY: o livro atualizado precisa ganhar uma nova versao (ETag)
+    private static final String UPSERT_SQL = """
+            merge into books b
+            using (values (cast(? as varchar), cast(? as varchar), cast(? as integer), cast(? as bigint)))
+                v(title, author, year_of_publication, id)
+            on b.title = v.title
+            when matched then update set author = v.author, year_of_publication = v.year_of_publication,
+                version = b.version + 1
+            when not matched then insert (id, title, author, year_of_publication)
+                values (v.id, v.title, v.author, v.year_of_publication)""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${books.batch.size:500}")
+    private int batchSize;
+
+    // o upsert pode alterar livros ja existentes (por titulo), entao descarta o cache de livros
+    @CacheEvict(value = "books", allEntries = true, condition = "#upsert")
+    public BookBatchResult insertAll(Iterator<Book> books, boolean upsert) {
+        List<BookBatchError> errors = new ArrayList<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        int received = 0;
+        int written = 0;
+
+        while (true) {
+            Book book;
+            try {
+                if (!books.hasNext()) {
+                    break;
+                }
+                book = books.next();
+            } catch (RuntimeException e) {
+                // conteudo malformado: nao ha como continuar a leitura, grava o que ja foi lido
+                errors.add(new BookBatchError(received + 1, null, "Conteudo invalido: " + e.getMessage()));
+                break;
+            }
+            received++;
+
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                errors.add(new BookBatchError(received, book.getTitle(), violations.iterator().next().getMessage()));
+                continue;
+            }
+
+            batch.add(new Row(received, book));
+            if (batch.size() >= batchSize) {
+                written += flush(batch, upsert, errors);
+                batch.clear();
+            }
+        }
+        written += flush(batch, upsert, errors);
+
+        errors.sort(Comparator.comparingInt(BookBatchError::row));
+        return new BookBatchResult(received, written, errors);
+    }
+
+    private int flush(List<Row> batch, boolean upsert, List<BookBatchError> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Row> rows = upsert ? batch : removeDuplicates(batch, errors);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        String sql = upsert ? UPSERT_SQL : INSERT_SQL;
+        Iterator<Long> ids = allocateIds(rows.size()).iterator();
+        for (Row row : rows) {
+            row.book().setId(ids.next());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows, rows.size(),
+                    (ps, row) -> {
+                        ps.setString(1, row.book().getTitle());
+                        ps.setString(2, row.book().getAuthor());
+                        ps.setInt(3, row.book().getYearOfPublication());
+                        ps.setLong(4, row.book().getId());
+                    }));
+            return rows.size();
+        } catch (DataAccessException e) {
+            // o lote falhou (ex.: titulo inserido concorrentemente): grava linha a linha para isolar o erro
+            return insertOneByOne(sql, rows, errors);
+        }
+    }
+
+    private List<Row> removeDuplicates(List<Row> batch, List<BookBatchError> errors) {
+        Set<String> titles = new HashSet<>();
+        for (Row row : batch) {
+            titles.add(row.book().getTitle());
+        }
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "select title from books where title in (:titles)", Map.of("titles", titles), String.class));
+
+        List<Row> rows = new ArrayList<>(batch.size());
+        Set<String> seen = new HashSet<>();
+        for (Row row : batch) {
+            String title = row.book().getTitle();
+            if (existing.contains(title)) {
+                errors.add(new BookBatchError(row.index(), title, "Titulo ja cadastrado"));
+            } else if (!seen.add(title)) {
+                errors.add(new BookBatchError(row.index(), title, "Titulo duplicado no lote"));
+            } else {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private int insertOneByOne(String sql, List<Row> rows, List<BookBatchError> errors) {
+        int written = 0;
+        for (Row row : rows) {
+            Book book = row.book();
+            try {
+                jdbcTemplate.update(sql, book.getTitle(), book.getAuthor(), book.getYearOfPublication(), book.getId());
+                written++;
+            } catch (DataAccessException e) {
+                errors.add(new BookBatchError(row.index(), book.getTitle(), "Erro ao inserir um livro."));
+            }
+        }
+        return written;
+    }
+
+    // ids do mesmo gerador que o save() do JPA usa: o bloco em memoria do otimizador pooled e dividido entre os dois
+    // caminhos, entao um id nunca sai duas vezes. Um upsert que atualiza um livro existente descarta o id reservado
+    private List<Long> allocateIds(int count) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Book.class).getGenerator();
+        List<Long> ids = new ArrayList<>(count);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < count; i++) {
+                ids.add((Long) generator.generate((SharedSessionContractImplementor) session, null));
+            }
+        }
+        return ids;
+    }
+
+    private record Row(int index, Book book) {
+    }
+}
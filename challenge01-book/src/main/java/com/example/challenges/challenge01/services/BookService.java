@@ -1,28 +1,72 @@
 package com.example.challenges.challenge01.services;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.models.BookPage;
 import com.example.challenges.challenge01.repositories.BookRepository;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+
 @Service
+@Timed("books.service")
 public class BookService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     public List<Book> findAll() {
         return bookRepository.findAll();
     }
 
+    public BookPage findPage(String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // busca limit + 1 para saber se existe proxima pagina sem precisar de count(*)
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(decodeCursor(cursor), Limit.of(limit + 1));
+        if (books.size() <= limit) {
+            return new BookPage(books, null);
+        }
+        List<Book> content = books.subList(0, limit);
+        return new BookPage(content, encodeCursor(content.get(limit - 1).getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAllOrderById()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                // remove do contexto de persistencia para manter o uso de memoria constante
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    @Cacheable(value = "books", key = "#id")
     public Book findById(Long id){
         return bookRepository.findById(id).orElseThrow(() -> new RuntimeException("Livro não encontrado"));
 
     }
 
+    @CachePut(value = "books", key = "#result.id")
     public Book insert(Book book){
         try{
             return bookRepository.save(book);
@@ -32,21 +76,51 @@ public class BookService {
        
     }
 
+    @CacheEvict(value = "books", key = "#id")
     public void delete(Long id){
         bookRepository.deleteById(id);
     }
 
-    public Book update(Long id, Book book){
+    // expectedVersion vem do If-Match; nulo aceita qualquer versao. O save tambem confere a versao lida,
+    // entao uma escrita concorrente entre a leitura e o save falha em vez de ser sobrescrita
+    @CachePut(value = "books", key = "#id")
+    public Book update(Long id, Book book, Long expectedVersion){
         try{
-            Book entity = bookRepository.getReferenceById(id);
+            // findById em vez de getReferenceById: o valor salvo vai para o cache e nao pode ser um proxy lazy
+            Book entity = bookRepository.findById(id).orElseThrow(() -> new RuntimeException("Livro não encontrado"));
+            if(expectedVersion != null && !expectedVersion.equals(entity.getVersion())){
+                throw new OptimisticLockingFailureException("Livro alterado por outra requisição");
+            }
             updateData(entity, book);
             return bookRepository.save(entity);
+        }catch(OptimisticLockingFailureException e){
+            throw e;
         }catch(Exception e){
             throw new RuntimeException("Erro ao atualizar um livro.", e);
         }
        
     }
 
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith("id:")) {
+                throw new IllegalArgumentException("Cursor invalido");
+            }
+            return Long.parseLong(value.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor invalido", e);
+        }
+    }
+
     private void updateData(Book entity, Book obj){
         entity.setTitle(obj.getTitle());
         entity.setAuthor(obj.getAuthor());
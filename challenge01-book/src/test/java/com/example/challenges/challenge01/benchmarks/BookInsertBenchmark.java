@@ -0,0 +1,92 @@
+package com.example.challenges.challenge01.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.challenges.challenge01.Challenge01Application;
+import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.models.BookBatchResult;
+import com.example.challenges.challenge01.repositories.BookRepository;
+import com.example.challenges.challenge01.services.BookBatchService;
+
+// Criacao de livros em massa pelo JPA (saveAll numa transacao) e pelo POST /livros/lote (JDBC), por lote.
+// hibernate.jdbc.batch_size=1 reproduz um insert por livro, como era com IDENTITY; 50 e o valor da aplicacao
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookInsertBenchmark {
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    @Param({"500"})
+    private int books;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository repository;
+    private BookBatchService batchService;
+    private TransactionTemplate transactionTemplate;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Challenge01Application.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--logging.level.root=WARN");
+        repository = context.getBean(BookRepository.class);
+        batchService = context.getBean(BookBatchService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> saveAll() {
+        List<Book> batch = newBooks();
+        return transactionTemplate.execute(status -> repository.saveAll(batch));
+    }
+
+    @Benchmark
+    public BookBatchResult batchService() {
+        return batchService.insertAll(newBooks().iterator(), false);
+    }
+
+    // titulos unicos a cada chamada por causa da constraint de titulo
+    private List<Book> newBooks() {
+        List<Book> batch = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            Book book = new Book();
+            book.setTitle("Livro " + sequence++);
+            book.setAuthor("Autor " + i);
+            book.setYearOfPublication(1950 + i % 70);
+            batch.add(book);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.challenges.challenge01.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.challenges.challenge01.models.Book;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+// Custo da validacao do Book (o mesmo caminho do @Valid e do POST /livros/lote), por lote de livros
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookValidationBenchmark {
+
+    @Param({"1", "500"})
+    private int batchSize;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private List<Book> validBooks;
+    private List<Book> invalidBooks;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        validBooks = new ArrayList<>(batchSize);
+        invalidBooks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            validBooks.add(book("Livro numero " + i, "Autor " + i, 1950 + i % 70));
+            invalidBooks.add(book("  ", "", 3000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public void validBooks(Blackhole blackhole) {
+        for (Book book : validBooks) {
+            blackhole.consume(validator.validate(book));
+        }
+    }
+
+    @Benchmark
+    public void invalidBooks(Blackhole blackhole) {
+        for (Book book : invalidBooks) {
+            blackhole.consume(validator.validate(book));
+        }
+    }
+
+    private static Book book(String title, String author, int year) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setYearOfPublication(year);
+        return book;
+    }
+}
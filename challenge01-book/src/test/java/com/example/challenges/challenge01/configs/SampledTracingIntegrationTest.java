@@ -0,0 +1,84 @@
+package com.example.challenges.challenge01.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "spring.jmx.enabled=true")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+public class SampledTracingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SampledTracing tracing;
+
+    @AfterEach
+    void tearDown() {
+        tracing.sampleEvery(0);
+    }
+
+    @Test
+    void shouldNotLogSql_WhenSamplingIsOff(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/livros")).andExpect(status().isOk());
+
+        assertThat(output.getOut()).doesNotContain("org.hibernate.SQL");
+    }
+
+    @Test
+    void shouldLogSql_WhenSamplingIsSwitchedOnOverJmx(CapturedOutput output) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Tracing,*"), null);
+        assertThat(names).hasSize(1);
+        ObjectName name = names.iterator().next();
+
+        server.invoke(name, "sampleEvery", new Object[] {1}, new String[] {Integer.class.getName()});
+        mockMvc.perform(get("/livros")).andExpect(status().isOk());
+
+        assertThat(output.getOut()).contains("org.hibernate.SQL");
+    }
+
+    @Test
+    void shouldNotExposeTracingOverHttp() throws Exception {
+        mockMvc.perform(get("/actuator/tracing")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/actuator/tracing")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sampleEvery\": 1}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldTraceOneRequestInN() {
+        tracing.sampleEvery(3);
+
+        int sampled = 0;
+        for (int i = 0; i < 9; i++) {
+            if (tracing.begin()) {
+                sampled++;
+                tracing.end();
+            }
+        }
+
+        assertThat(sampled).isEqualTo(3);
+    }
+}
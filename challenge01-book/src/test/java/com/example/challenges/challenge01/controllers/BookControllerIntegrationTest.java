@@ -0,0 +1,269 @@
+package com.example.challenges.challenge01.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.repositories.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookControllerIntegrationTest {
+
+    private static final String UPDATED = "{\"title\": \"Livro 1\", \"author\": \"Outro autor\", \"yearOfPublication\": 2000}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        cacheManager.getCache("books").clear();
+    }
+
+    private Book save(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Autor");
+        book.setYearOfPublication(2000);
+        return bookRepository.save(book);
+    }
+
+    @Test
+    void shouldInsertBooks_WhenBodyIsJsonArray() throws Exception {
+        mockMvc.perform(post("/livros/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"title": "Livro 1", "author": "Autor", "yearOfPublication": 2000},
+                                 {"title": "Livro 2", "author": "Autor", "yearOfPublication": 2001}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.written").value(2))
+                .andExpect(jsonPath("$.errors").isEmpty());
+
+        assertThat(bookRepository.findAll()).extracting(Book::getTitle).containsExactlyInAnyOrder("Livro 1", "Livro 2");
+    }
+
+    @Test
+    void shouldInsertBooks_WhenBodyIsNdjson() throws Exception {
+        mockMvc.perform(post("/livros/lote")
+                        .contentType(BookController.APPLICATION_NDJSON_VALUE)
+                        .content("""
+                                {"title": "Livro 1", "author": "Autor", "yearOfPublication": 2000}
+                                {"title": "Livro 2", "author": "Autor", "yearOfPublication": 2001}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.written").value(2))
+                .andExpect(jsonPath("$.errors").isEmpty());
+
+        assertThat(bookRepository.findAll()).extracting(Book::getTitle).containsExactlyInAnyOrder("Livro 1", "Livro 2");
+    }
+
+    @Test
+    void shouldReportErrorsPerRow_AndWriteTheValidOnes() throws Exception {
+        save("Livro existente");
+
+        mockMvc.perform(post("/livros/lote")
+                        .contentType(BookController.APPLICATION_NDJSON_VALUE)
+                        .content("""
+                                {"title": "Livro 1", "author": "Autor", "yearOfPublication": 2000}
+                                {"title": "Livro 2", "author": "  ", "yearOfPublication": 2000}
+                                {"title": "Livro existente", "author": "Autor", "yearOfPublication": 2000}
+                                {"title": "Livro 1", "author": "Outro autor", "yearOfPublication": 2000}
+                                {"title": "Livro 3", "author": "Autor", "yearOfPublication": 2000}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.written").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].title").value("Livro 2"))
+                .andExpect(jsonPath("$.errors[1].row").value(3))
+                .andExpect(jsonPath("$.errors[1].message").value("Titulo ja cadastrado"))
+                .andExpect(jsonPath("$.errors[2].row").value(4))
+                .andExpect(jsonPath("$.errors[2].message").value("Titulo duplicado no lote"));
+
+        assertThat(bookRepository.findAll()).extracting(Book::getTitle)
+                .containsExactlyInAnyOrder("Livro existente", "Livro 1", "Livro 3");
+    }
+
+    @Test
+    void shouldKeepRowsReadBeforeMalformedContent() throws Exception {
+        mockMvc.perform(post("/livros/lote")
+                        .contentType(BookController.APPLICATION_NDJSON_VALUE)
+                        .content("""
+                                {"title": "Livro 1", "author": "Autor", "yearOfPublication": 2000}
+                                {"title": "Livro 2", "author":
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(1))
+                .andExpect(jsonPath("$.written").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("Conteudo invalido")));
+
+        assertThat(bookRepository.findAll()).extracting(Book::getTitle).containsExactly("Livro 1");
+    }
+
+    @Test
+    void shouldWalkAllPages_FollowingNextCursor() throws Exception {
+        Book first = save("Livro 1");
+        Book second = save("Livro 2");
+        save("Livro 3");
+
+        JsonNode page = page("/livros/pagina?size=2");
+        assertThat(page.get("content")).extracting(book -> book.get("title").asText()).containsExactly("Livro 1", "Livro 2");
+        // o cursor e o ultimo id da pagina, em base64 url-safe sem padding
+        String cursor = page.get("nextCursor").asText();
+        assertThat(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)).isEqualTo("id:" + second.getId());
+        assertThat(cursor).doesNotContain("=");
+
+        page = page("/livros/pagina?size=2&cursor=" + cursor);
+        assertThat(page.get("content")).extracting(book -> book.get("title").asText()).containsExactly("Livro 3");
+        assertThat(page.get("nextCursor").isNull()).isTrue();
+
+        // sem cursor a listagem comeca do primeiro livro
+        page = page("/livros/pagina?size=1");
+        assertThat(page.get("content").get(0).get("id").asLong()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/livros/pagina?cursor=***"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/livros/pagina?cursor=" + encode("x:10")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/livros/pagina?cursor=" + encode("id:abc")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamBooksAsNdjson_InIdOrder() throws Exception {
+        save("Livro 1");
+        save("Livro 2");
+        save("Livro 3");
+
+        MvcResult stream = mockMvc.perform(get("/livros").accept(BookController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        // um livro por linha, cada linha um JSON completo
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines).extracting(line -> objectMapper.readTree(line).get("title").asText())
+                .containsExactly("Livro 1", "Livro 2", "Livro 3");
+        assertThat(body).endsWith("\n");
+    }
+
+    @Test
+    void shouldReturnNotModified_WhenETagMatches() throws Exception {
+        Book book = save("Livro 1");
+
+        mockMvc.perform(get("/livros/{id}", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.title").value("Livro 1"));
+
+        mockMvc.perform(get("/livros/{id}", book.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+
+        // o PUT atualiza o cache por id: o ETag antigo deixa de conferir sem esperar o cache expirar
+        mockMvc.perform(put("/livros/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Livro 1\", \"author\": \"Outro autor\", \"yearOfPublication\": 2000}"))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get("/livros/{id}", book.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.author").value("Outro autor"));
+        mockMvc.perform(get("/livros/{id}", book.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldUpdateOnlyWhenIfMatchIsCurrent() throws Exception {
+        Book book = save("Livro 1");
+
+        mockMvc.perform(put("/livros/{id}", book.getId()).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATED))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // versao antiga, ETag fraco ou invalido nunca conferem
+        for (String stale : new String[] { "\"0\"", "W/\"1\"", "\"abc\"" }) {
+            mockMvc.perform(put("/livros/{id}", book.getId()).header(HttpHeaders.IF_MATCH, stale)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \"Livro 1\", \"author\": \"Perdido\", \"yearOfPublication\": 2000}"))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        }
+        Book stored = bookRepository.findById(book.getId()).orElseThrow();
+        assertThat(stored.getAuthor()).isEqualTo("Outro autor");
+        assertThat(stored.getVersion()).isEqualTo(1L);
+
+        // "*" e a ausencia de If-Match aceitam qualquer versao
+        mockMvc.perform(put("/livros/{id}", book.getId()).header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Livro 1\", \"author\": \"Autor 2\", \"yearOfPublication\": 2000}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        mockMvc.perform(put("/livros/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Livro 1\", \"author\": \"Autor 3\", \"yearOfPublication\": 2000}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    private JsonNode page(String uri) throws Exception {
+        String body = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
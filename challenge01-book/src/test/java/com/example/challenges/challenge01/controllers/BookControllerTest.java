@@ -0,0 +1,45 @@
+package com.example.challenges.challenge01.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.services.BookBatchService;
+import com.example.challenges.challenge01.services.BookService;
+
+@WebMvcTest(BookController.class)
+public class BookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookService bookService;
+
+    @MockitoBean
+    private BookBatchService bookBatchService;
+
+    @Test
+    void shouldReturnPreconditionFailed_WhenConcurrentWriteWinsWithoutIfMatch() throws Exception {
+        // sem If-Match, o save ainda confere a versao lida: outra escrita no meio tambem responde 412
+        when(bookService.update(eq(1L), any(Book.class), isNull()))
+                .thenThrow(new OptimisticLockingFailureException("Livro alterado por outra requisição"));
+
+        mockMvc.perform(put("/livros/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Livro 1\", \"author\": \"Autor\", \"yearOfPublication\": 2000}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.challenges.challenge01.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.challenges.challenge01.models.Book;
+import com.example.challenges.challenge01.models.BookBatchResult;
+import com.example.challenges.challenge01.repositories.BookRepository;
+
+// lotes de 2 linhas: poucos livros ja passam por varios lotes. Com o otimizador pooled-lo os blocos sao
+// [valor, valor + allocationSize): o lote so nao repete ids do save() se usar o mesmo gerador do Hibernate
+@SpringBootTest(properties = {
+        "books.batch.size=2",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo"
+})
+public class BookBatchServiceIntegrationTest {
+
+    @Autowired
+    private BookBatchService bookBatchService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        cacheManager.getCache("books").clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("alter table books drop constraint if exists books_rejeitado");
+    }
+
+    private static Book book(String title, String author) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setYearOfPublication(2000);
+        return book;
+    }
+
+    @Test
+    void shouldRetryChunkRowByRow_WhenBatchFails() {
+        // passa na validacao do bean, mas o banco recusa: o lote inteiro falha e e refeito linha a linha
+        jdbcTemplate.execute("alter table books add constraint books_rejeitado check (author <> 'Rejeitado')");
+
+        BookBatchResult result = bookBatchService.insertAll(List.of(
+                book("Livro 1", "Autor"),
+                book("Livro 2", "Rejeitado"),
+                book("Livro 3", "Autor")).iterator(), false);
+
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.written()).isEqualTo(2);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.row()).isEqualTo(2);
+            assertThat(error.title()).isEqualTo("Livro 2");
+            assertThat(error.message()).isEqualTo("Erro ao inserir um livro.");
+        });
+        assertThat(bookRepository.findAll()).extracting(Book::getTitle).containsExactlyInAnyOrder("Livro 1", "Livro 3");
+    }
+
+    @Test
+    void shouldBumpVersionAndEvictCache_WhenUpsertUpdatesExistingBook() {
+        Book saved = bookService.insert(book("Livro 1", "Autor"));
+        // deixa o livro no cache antes do upsert
+        assertThat(bookService.findById(saved.getId()).getVersion()).isZero();
+
+        BookBatchResult result = bookBatchService.insertAll(List.of(
+                book("Livro 1", "Outro autor"),
+                book("Livro 2", "Autor")).iterator(), true);
+
+        assertThat(result.written()).isEqualTo(2);
+        assertThat(result.errors()).isEmpty();
+        Book updated = bookService.findById(saved.getId());
+        assertThat(updated.getAuthor()).isEqualTo("Outro autor");
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(bookRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepCache_WhenInsertIsNotUpsert() {
+        Book saved = bookService.insert(book("Livro 1", "Autor"));
+        bookService.findById(saved.getId());
+
+        bookBatchService.insertAll(List.of(book("Livro 2", "Autor")).iterator(), false);
+
+        assertThat(cacheManager.getCache("books").get(saved.getId())).isNotNull();
+    }
+
+    @Test
+    void shouldNotReuseIds_WhenSaveAndBulkInsertAreMixed() {
+        // mais livros que um bloco da sequence, alternando os dois caminhos de insert
+        int rounds = 3;
+        int perBatch = Book.ID_ALLOCATION_SIZE + 7;
+        for (int round = 0; round < rounds; round++) {
+            bookService.insert(book("Avulso " + round + "a", "Autor"));
+            List<Book> books = new ArrayList<>();
+            for (int i = 0; i < perBatch; i++) {
+                books.add(book("Lote " + round + "-" + i, "Autor"));
+            }
+            assertThat(bookBatchService.insertAll(books.iterator(), false).errors()).isEmpty();
+            bookService.insert(book("Avulso " + round + "b", "Autor"));
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList("select id from books", Long.class);
+        assertThat(ids).hasSize(rounds * (perBatch + 2)).doesNotHaveDuplicates();
+    }
+}
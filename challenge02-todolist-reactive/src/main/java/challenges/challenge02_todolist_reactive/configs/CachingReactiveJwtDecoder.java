@@ -0,0 +1,58 @@
+package challenges.challenge02_todolist_reactive.configs;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+// Guarda os tokens ja verificados ate o exp de cada um: um cliente que repete o token nao refaz HMAC nem parse
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final Cache<String, Jwt> verified;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maximumSize) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        Jwt jwt = verified.getIfPresent(token);
+        if (jwt != null) {
+            return Mono.just(jwt);
+        }
+        // token invalido ou expirado termina com erro aqui e nunca entra no cache
+        return delegate.decode(token).doOnNext(decoded -> verified.put(token, decoded));
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+            if (jwt.getExpiresAt() == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
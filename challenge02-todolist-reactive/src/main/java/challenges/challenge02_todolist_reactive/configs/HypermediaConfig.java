@@ -0,0 +1,22 @@
+package challenges.challenge02_todolist_reactive.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.config.EnableHypermediaSupport.HypermediaType;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.http.MediaType;
+
+// HAL tambem para application/json, como o spring.hateoas.use-hal-as-default-json-media-type faz no MVC
+@Configuration
+@EnableR2dbcAuditing
+@EnableHypermediaSupport(type = HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class HypermediaConfig {
+
+    @Bean
+    public HalConfiguration halConfiguration() {
+        return new HalConfiguration().withMediaType(MediaType.APPLICATION_JSON);
+    }
+}
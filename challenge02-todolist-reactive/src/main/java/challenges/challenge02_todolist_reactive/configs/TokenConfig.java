@@ -0,0 +1,66 @@
+package challenges.challenge02_todolist_reactive.configs;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+
+// Mesmos tokens HS256 do challenge02-todolist: com o mesmo todolist.auth.secret um token vale nas duas aplicacoes
+@Configuration
+public class TokenConfig {
+
+    @Value("${todolist.auth.secret:}")
+    private String secret;
+
+    @Value("${todolist.auth.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    @Bean
+    public SecretKey tokenKey() {
+        if (secret.isBlank()) {
+            // sem segredo configurado: chave aleatoria, os tokens deixam de valer quando a aplicacao reinicia
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return new SecretKeySpec(random, "HmacSHA256");
+        }
+        return new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenKey));
+    }
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(SecretKey tokenKey) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(tokenKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        return new CachingReactiveJwtDecoder(decoder, verifiedCacheSize);
+    }
+
+    // o claim "roles" ja vem com o prefixo ROLE_, igual as authorities do usuario que pediu o token
+    @Bean
+    public ReactiveJwtAuthenticationConverterAdapter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName("roles");
+        authorities.setAuthorityPrefix("");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return new ReactiveJwtAuthenticationConverterAdapter(converter);
+    }
+}
@@ -0,0 +1,79 @@
+package challenges.challenge02_todolist_reactive.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
+
+// sem formulario de login nem sessao: Basic so para emitir o token, Bearer em /tarefas
+@Configuration
+@EnableWebFluxSecurity
+public class WebSecurityConfig {
+
+    // emissao de token: o BCrypt da senha roda uma vez por token, nao a cada chamada da API
+    @Bean
+    @Order(1)
+    public SecurityWebFilterChain tokenFilterChain(ServerHttpSecurity http) {
+        http
+                .securityMatcher(pathMatchers("/auth/token"))
+                .csrf(csrf -> csrf.disable())
+                .authorizeExchange(exchanges -> exchanges.anyExchange().hasRole("USER"))
+                .httpBasic(Customizer.withDefaults())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityWebFilterChain apiFilterChain(ServerHttpSecurity http,
+                                                 ReactiveJwtAuthenticationConverterAdapter jwtAuthenticationConverter) {
+        http
+                .securityMatcher(pathMatchers("/tarefas", "/tarefas/**"))
+                .csrf(csrf -> csrf.disable())
+                .authorizeExchange(exchanges -> exchanges.anyExchange().hasRole("USER"))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)));
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http) {
+        http
+                .csrf(csrf -> csrf.disable())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/health").permitAll()
+                        .anyExchange().authenticated())
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
+    @Bean
+    public MapReactiveUserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
+        UserDetails user1 = User.builder()
+                .username("user")
+                .password(passwordEncoder.encode("1"))
+                .roles("USER")
+                .build();
+
+        return new MapReactiveUserDetailsService(user1);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
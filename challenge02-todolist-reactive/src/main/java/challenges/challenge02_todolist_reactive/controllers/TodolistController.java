@@ -0,0 +1,169 @@
+package challenges.challenge02_todolist_reactive.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+
+import challenges.challenge02_todolist_reactive.dto.TodolistPatch;
+import challenges.challenge02_todolist_reactive.dto.TodolistResponse;
+import challenges.challenge02_todolist_reactive.models.Todolist;
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import challenges.challenge02_todolist_reactive.services.TodolistService;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+// mesmo contrato de /tarefas do challenge02-todolist; corpo invalido responde 400 pela WebExchangeBindException.
+// Como la, o If-Match vale so para o PUT: PATCH e DELETE nao sao condicionais
+@RestController
+@RequestMapping("/tarefas")
+public class TodolistController {
+
+    @Autowired
+    private TodolistService service;
+
+    @GetMapping
+    public Mono<ResponseEntity<CollectionModel<EntityModel<TodolistResponse>>>> findAll(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "5") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "totals", required = false) Boolean totals,
+            ServerWebExchange exchange
+    ) {
+        // after e before sao cursores em sentidos opostos
+        if (after != null && before != null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        TodolistLinks links = links(exchange);
+        if (after != null || before != null) {
+            return service.findAll(after, before, size, Boolean.TRUE.equals(totals), links).map(ResponseEntity::ok);
+        }
+        return service.findAll(pageable(page, size, direction), links).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/busca")
+    public Mono<ResponseEntity<CollectionModel<EntityModel<TodolistResponse>>>> findByTitle(
+            @RequestParam(value = "title") String title,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "5") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "totals", required = false) Boolean totals,
+            ServerWebExchange exchange
+    ) {
+        // after e before sao cursores em sentidos opostos
+        if (after != null && before != null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        TodolistLinks links = links(exchange);
+        if (after != null || before != null) {
+            return service.findByTitle(title, after, before, size, Boolean.TRUE.equals(totals), links).map(ResponseEntity::ok);
+        }
+        return service.findByTitle(title, pageable(page, size, direction), links).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/status")
+    public Mono<ResponseEntity<CollectionModel<EntityModel<TodolistResponse>>>> findByStatus(
+            @RequestParam(value = "status") TodoStatus status,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "5") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "totals", required = false) Boolean totals,
+            ServerWebExchange exchange
+    ) {
+        // after e before sao cursores em sentidos opostos
+        if (after != null && before != null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        TodolistLinks links = links(exchange);
+        if (after != null || before != null) {
+            return service.findByStatus(status, after, before, size, Boolean.TRUE.equals(totals), links).map(ResponseEntity::ok);
+        }
+        return service.findByStatus(status, pageable(page, size, direction), links).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EntityModel<TodolistResponse>>> findById(@PathVariable Long id, ServerWebExchange exchange) {
+        return service.findById(id).flatMap(task -> {
+            String etag = etag(task.getVersion());
+            // If-None-Match igual responde 304 sem montar nem serializar o corpo
+            if (exchange.checkNotModified(etag)) {
+                return Mono.empty();
+            }
+            EntityModel<TodolistResponse> model = EntityModel.of(TodolistService.toResponse(task, links(exchange)));
+            return Mono.just(ResponseEntity.ok().eTag(etag).body(model));
+        });
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<EntityModel<TodolistResponse>>> insert(@RequestBody @Valid Todolist toDoList, ServerWebExchange exchange) {
+        return service.insert(toDoList)
+                .map(savedTask -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(EntityModel.of(TodolistService.toResponse(savedTask, links(exchange)))));
+    }
+
+    @PutMapping(value = "/{id}")
+    public Mono<ResponseEntity<EntityModel<TodolistResponse>>> update(@PathVariable Long id,
+                                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                                      @RequestBody @Valid Todolist toDoList,
+                                                                      ServerWebExchange exchange) {
+        return service.update(id, toDoList, expectedVersion(ifMatch))
+                .map(updatedTask -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .eTag(etag(updatedTask.getVersion()))
+                        .body(EntityModel.of(TodolistService.toResponse(updatedTask, links(exchange)))))
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()));
+    }
+
+    // escreve so as colunas enviadas, sem ler a tarefa antes nem depois
+    @PatchMapping(value = "/{id}")
+    public Mono<ResponseEntity<Void>> patch(@PathVariable Long id, @RequestBody @Valid TodolistPatch patch) {
+        return service.patch(id, patch).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @DeleteMapping(value = "/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return service.delete(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private static TodolistLinks links(ServerWebExchange exchange) {
+        return new TodolistLinks(exchange.getRequest().getURI());
+    }
+
+    private static Pageable pageable(int page, int size, String direction) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return PageRequest.of(page, size, Sort.by(sortDirection, "id"));
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-Match usa comparacao forte: "*" aceita qualquer versao, um ETag fraco ou invalido nunca confere
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // cai na versao inexistente abaixo
+            }
+        }
+        return -1L;
+    }
+}
@@ -0,0 +1,57 @@
+package challenges.challenge02_todolist_reactive.controllers;
+
+import java.net.URI;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.util.UriComponentsBuilder;
+
+// Links da requisicao atual: no WebFlux nao ha RequestContextHolder, entao a base e calculada uma vez
+// a partir da URI recebida e repassada ao servico
+public class TodolistLinks {
+
+    private final URI request;
+    private final String base;
+
+    public TodolistLinks(URI request) {
+        this.request = request;
+        this.base = UriComponentsBuilder.fromUri(request).replacePath("/tarefas").replaceQuery(null).toUriString();
+    }
+
+    public Link self(Long id) {
+        return Link.of(base + "/" + id);
+    }
+
+    public Link self() {
+        return Link.of(UriComponentsBuilder.fromUri(request).toUriString());
+    }
+
+    public Link page(int page, int size, LinkRelation relation) {
+        String href = UriComponentsBuilder.fromUri(request)
+                .replaceQueryParam("page", page)
+                .replaceQueryParam("size", size)
+                .toUriString();
+        return Link.of(href, relation);
+    }
+
+    // proxima pagina por cursor: "after" ou "before" substitui a paginacao por numero
+    private Link cursor(String name, Long id, LinkRelation relation) {
+        String href = UriComponentsBuilder.fromUri(request)
+                .replaceQueryParam("page")
+                .replaceQueryParam("direction")
+                .replaceQueryParam("after")
+                .replaceQueryParam("before")
+                .replaceQueryParam(name, id)
+                .toUriString();
+        return Link.of(href, relation);
+    }
+
+    public Link next(Long id) {
+        return cursor("after", id, IanaLinkRelations.NEXT);
+    }
+
+    public Link prev(Long id) {
+        return cursor("before", id, IanaLinkRelations.PREV);
+    }
+}
@@ -0,0 +1,57 @@
+package challenges.challenge02_todolist_reactive.dto;
+
+import java.time.LocalDateTime;
+
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// corpo do PATCH: campos nulos ficam como estao no banco
+public class TodolistPatch {
+
+    @Pattern(regexp = ".*\\S.*", message = "Titulo nao pode conter apenas espaçoes!")
+    @Size(min = 3, max = 100, message = "Titulo deve ter entre 3 e 100 caracteres")
+    private String title;
+
+    private String description;
+
+    private TodoStatus status;
+
+    private LocalDateTime conclusionDate;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public TodoStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TodoStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getConclusionDate() {
+        return conclusionDate;
+    }
+
+    public void setConclusionDate(LocalDateTime conclusionDate) {
+        this.conclusionDate = conclusionDate;
+    }
+
+    public boolean isEmpty() {
+        return title == null && description == null && status == null && conclusionDate == null;
+    }
+}
@@ -0,0 +1,53 @@
+package challenges.challenge02_todolist_reactive.dto;
+
+import java.time.LocalDateTime;
+
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+// mantem o nome "todolistList" no _embedded para nao quebrar os clientes existentes
+@Relation(itemRelation = "todolist", collectionRelation = "todolistList")
+public class TodolistResponse extends RepresentationModel<TodolistResponse> {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final TodoStatus status;
+    private final LocalDateTime creationDate;
+    private final LocalDateTime conclusionDate;
+
+    public TodolistResponse(Long id, String title, String description, TodoStatus status,
+                            LocalDateTime creationDate, LocalDateTime conclusionDate) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.creationDate = creationDate;
+        this.conclusionDate = conclusionDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TodoStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public LocalDateTime getConclusionDate() {
+        return conclusionDate;
+    }
+}
@@ -0,0 +1,110 @@
+package challenges.challenge02_todolist_reactive.models;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+// mesma tabela e colunas do challenge02-todolist; o schema.sql cria os indices que la vem do @Table do JPA
+@Table("todolist")
+public class Todolist {
+
+    @Id
+    private Long id;
+
+    @NotEmpty(message = "Titulo é obrigatório")
+    @NotBlank(message = "Titulo nao pode conter apenas espaçoes!")
+    @Size(min = 3, max = 100, message = "Titulo deve ter entre 3 e 100 caracteres")
+    private String title;
+
+    private String description;
+
+    // gravado pelo nome (o R2DBC converte enum em texto)
+    private TodoStatus status;
+
+    @CreatedDate
+    private LocalDateTime creationDate;
+
+    private LocalDateTime conclusionDate;
+
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    public Todolist() {
+    }
+
+    public Todolist(Long id, String title, String description, TodoStatus status,
+                    LocalDateTime creationDate, LocalDateTime conclusionDate) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.creationDate = creationDate;
+        this.conclusionDate = conclusionDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public TodoStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TodoStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public LocalDateTime getConclusionDate() {
+        return conclusionDate;
+    }
+
+    public void setConclusionDate(LocalDateTime conclusionDate) {
+        this.conclusionDate = conclusionDate;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,7 @@
+package challenges.challenge02_todolist_reactive.models.enums;
+
+public enum TodoStatus {
+    PENDENTE,
+    EM_ANDAMENTO,
+    CONCLUIDA
+}
@@ -0,0 +1,91 @@
+package challenges.challenge02_todolist_reactive.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+import challenges.challenge02_todolist_reactive.models.Todolist;
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TodolistRepository extends R2dbcRepository<Todolist, Long> {
+
+    Flux<Todolist> findAllBy(Pageable pageable);
+    Flux<Todolist> findByStatus(TodoStatus status, Pageable pageable);
+    Mono<Long> countByStatus(TodoStatus status);
+
+    Flux<Todolist> findByIdGreaterThan(Long id, Pageable pageable);
+    Flux<Todolist> findByIdLessThan(Long id, Pageable pageable);
+    Flux<Todolist> findByStatusAndIdGreaterThan(TodoStatus status, Long id, Pageable pageable);
+    Flux<Todolist> findByStatusAndIdLessThan(TodoStatus status, Long id, Pageable pageable);
+
+    // sem o indice de trigramas do challenge02-todolist: a busca e um LIKE '%termo%' em titulo e descricao
+    @Query("""
+            select * from todolist
+            where lower(title) like :pattern or lower(description) like :pattern
+            order by id asc limit :limit offset :offset""")
+    Flux<Todolist> searchAsc(String pattern, long offset, int limit);
+
+    @Query("""
+            select * from todolist
+            where lower(title) like :pattern or lower(description) like :pattern
+            order by id desc limit :limit offset :offset""")
+    Flux<Todolist> searchDesc(String pattern, long offset, int limit);
+
+    @Query("""
+            select * from todolist
+            where (lower(title) like :pattern or lower(description) like :pattern) and id > :id
+            order by id asc limit :limit""")
+    Flux<Todolist> searchAfter(String pattern, Long id, int limit);
+
+    @Query("""
+            select * from todolist
+            where (lower(title) like :pattern or lower(description) like :pattern) and id < :id
+            order by id desc limit :limit""")
+    Flux<Todolist> searchBefore(String pattern, Long id, int limit);
+
+    @Query("select count(*) from todolist where lower(title) like :pattern or lower(description) like :pattern")
+    Mono<Long> countMatching(String pattern);
+
+    // a tarefa existe e o cursor nao e o comeco da lista? decide o link prev (avancando) ou o next (voltando)
+    Mono<Boolean> existsByIdLessThanEqual(Long id);
+    Mono<Boolean> existsByIdGreaterThanEqual(Long id);
+    Mono<Boolean> existsByStatusAndIdLessThanEqual(TodoStatus status, Long id);
+    Mono<Boolean> existsByStatusAndIdGreaterThanEqual(TodoStatus status, Long id);
+
+    @Query("""
+            select exists(select 1 from todolist
+            where (lower(title) like :pattern or lower(description) like :pattern) and id <= :id)""")
+    Mono<Boolean> existsMatchingUpTo(String pattern, Long id);
+
+    @Query("""
+            select exists(select 1 from todolist
+            where (lower(title) like :pattern or lower(description) like :pattern) and id >= :id)""")
+    Mono<Boolean> existsMatchingFrom(String pattern, Long id);
+
+    // escritas em um unico comando: o UPDATE devolve a versao nova, ou nada se a tarefa nao existe
+    @Query("""
+            select version from final table (update todolist set title = :title, description = :description,
+                status = :status, creation_date = :creationDate, conclusion_date = :conclusionDate,
+                version = version + 1
+            where id = :id)""")
+    Mono<Long> updateById(Long id, String title, String description, TodoStatus status,
+                          LocalDateTime creationDate, LocalDateTime conclusionDate);
+
+    // PUT condicional (If-Match): so escreve se ninguem alterou a tarefa desde a versao informada
+    @Query("""
+            select version from final table (update todolist set title = :title, description = :description,
+                status = :status, creation_date = :creationDate, conclusion_date = :conclusionDate,
+                version = version + 1
+            where id = :id and version = :version)""")
+    Mono<Long> updateByIdAndVersion(Long id, Long version, String title, String description, TodoStatus status,
+                                    LocalDateTime creationDate, LocalDateTime conclusionDate);
+
+    @Modifying
+    @Query("delete from todolist where id = :id")
+    Mono<Integer> removeById(Long id);
+}
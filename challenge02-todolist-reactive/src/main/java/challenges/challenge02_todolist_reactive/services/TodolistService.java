@@ -0,0 +1,252 @@
+package challenges.challenge02_todolist_reactive.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+import challenges.challenge02_todolist_reactive.controllers.TodolistLinks;
+import challenges.challenge02_todolist_reactive.dto.TodolistPatch;
+import challenges.challenge02_todolist_reactive.dto.TodolistResponse;
+import challenges.challenge02_todolist_reactive.dto.TodolistSliceModel;
+import challenges.challenge02_todolist_reactive.models.Todolist;
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import challenges.challenge02_todolist_reactive.repositories.TodolistRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class TodolistService {
+
+    @Autowired
+    private TodolistRepository repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<PagedModel<EntityModel<TodolistResponse>>> findAll(Pageable pageable, TodolistLinks links) {
+        return toPagedModel(repository.findAllBy(pageable), repository.count(), pageable, links);
+    }
+
+    public Mono<PagedModel<EntityModel<TodolistResponse>>> findByTitle(String title, Pageable pageable, TodolistLinks links) {
+        String pattern = pattern(title);
+        Sort.Order order = pageable.getSort().getOrderFor("id");
+        Flux<Todolist> tasks = order != null && order.isDescending()
+                ? repository.searchDesc(pattern, pageable.getOffset(), pageable.getPageSize())
+                : repository.searchAsc(pattern, pageable.getOffset(), pageable.getPageSize());
+        return toPagedModel(tasks, repository.countMatching(pattern), pageable, links);
+    }
+
+    public Mono<PagedModel<EntityModel<TodolistResponse>>> findByStatus(TodoStatus status, Pageable pageable, TodolistLinks links) {
+        return toPagedModel(repository.findByStatus(status, pageable), repository.countByStatus(status), pageable, links);
+    }
+
+    public Mono<TodolistSliceModel> findAll(Long after, Long before, int size, boolean totals, TodolistLinks links) {
+        Flux<Todolist> tasks = before != null
+                ? repository.findByIdLessThan(before, seekPage(size + 1, Sort.Direction.DESC))
+                : repository.findByIdGreaterThan(after, seekPage(size + 1, Sort.Direction.ASC));
+        Mono<Boolean> behind = before != null
+                ? repository.existsByIdGreaterThanEqual(before)
+                : repository.existsByIdLessThanEqual(after);
+        return toSliceModel(tasks, before != null, behind, size, totals ? repository.count() : null, links);
+    }
+
+    public Mono<TodolistSliceModel> findByTitle(String title, Long after, Long before, int size, boolean totals, TodolistLinks links) {
+        String pattern = pattern(title);
+        Flux<Todolist> tasks = before != null
+                ? repository.searchBefore(pattern, before, size + 1)
+                : repository.searchAfter(pattern, after, size + 1);
+        Mono<Boolean> behind = before != null
+                ? repository.existsMatchingFrom(pattern, before)
+                : repository.existsMatchingUpTo(pattern, after);
+        return toSliceModel(tasks, before != null, behind, size, totals ? repository.countMatching(pattern) : null, links);
+    }
+
+    public Mono<TodolistSliceModel> findByStatus(TodoStatus status, Long after, Long before, int size, boolean totals, TodolistLinks links) {
+        Flux<Todolist> tasks = before != null
+                ? repository.findByStatusAndIdLessThan(status, before, seekPage(size + 1, Sort.Direction.DESC))
+                : repository.findByStatusAndIdGreaterThan(status, after, seekPage(size + 1, Sort.Direction.ASC));
+        Mono<Boolean> behind = before != null
+                ? repository.existsByStatusAndIdGreaterThanEqual(status, before)
+                : repository.existsByStatusAndIdLessThanEqual(status, after);
+        return toSliceModel(tasks, before != null, behind, size, totals ? repository.countByStatus(status) : null, links);
+    }
+
+    public Mono<Todolist> findById(Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new TodolistNotFoundException("Tarefa nao encontrado")));
+    }
+
+    public Mono<Todolist> insert(Todolist toDoList) {
+        if (toDoList.getStatus() == null) {
+            toDoList.setStatus(TodoStatus.PENDENTE);
+        }
+        toDoList.setId(null);
+        toDoList.setVersion(null);
+        return repository.save(toDoList)
+                .onErrorMap(e -> new RuntimeException("Erro ao inserir uma tarefa", e));
+    }
+
+    public Mono<Void> delete(Long id) {
+        return repository.removeById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(new TodolistNotFoundException("Tarefa nao encontrada"))
+                        : Mono.<Void>empty());
+    }
+
+    // sem versao esperada o PUT sobrescreve a tarefa; com versao, so escreve se ela ainda for a atual
+    public Mono<Todolist> update(Long id, Todolist todolist, Long expectedVersion) {
+        Mono<Long> updated = expectedVersion == null
+                ? repository.updateById(id, todolist.getTitle(), todolist.getDescription(), todolist.getStatus(),
+                        todolist.getCreationDate(), todolist.getConclusionDate())
+                : repository.updateByIdAndVersion(id, expectedVersion, todolist.getTitle(), todolist.getDescription(),
+                        todolist.getStatus(), todolist.getCreationDate(), todolist.getConclusionDate());
+        return updated
+                .map(version -> {
+                    todolist.setId(id);
+                    // a versao vem do proprio UPDATE: o PUT sempre tem ETag, como no challenge02-todolist
+                    todolist.setVersion(version);
+                    return todolist;
+                })
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.error(new TodolistNotFoundException("Tarefa nao encontrada"))
+                        : repository.existsById(id).flatMap(exists -> Mono.error(exists
+                                ? new OptimisticLockingFailureException("Tarefa alterada por outra requisicao")
+                                : new TodolistNotFoundException("Tarefa nao encontrada")))));
+    }
+
+    // um UPDATE so com as colunas enviadas, sem ler a tarefa antes nem depois
+    public Mono<Void> patch(Long id, TodolistPatch patch) {
+        Mono<Boolean> found;
+        if (patch.isEmpty()) {
+            found = repository.existsById(id);
+        } else {
+            List<String> columns = new ArrayList<>();
+            if (patch.getTitle() != null) {
+                columns.add("title = :title");
+            }
+            if (patch.getDescription() != null) {
+                columns.add("description = :description");
+            }
+            if (patch.getStatus() != null) {
+                columns.add("status = :status");
+            }
+            if (patch.getConclusionDate() != null) {
+                columns.add("conclusion_date = :conclusionDate");
+            }
+            columns.add("version = version + 1");
+
+            DatabaseClient.GenericExecuteSpec spec = databaseClient
+                    .sql("update todolist set " + String.join(", ", columns) + " where id = :id")
+                    .bind("id", id);
+            if (patch.getTitle() != null) {
+                spec = spec.bind("title", patch.getTitle());
+            }
+            if (patch.getDescription() != null) {
+                spec = spec.bind("description", patch.getDescription());
+            }
+            if (patch.getStatus() != null) {
+                spec = spec.bind("status", patch.getStatus().name());
+            }
+            if (patch.getConclusionDate() != null) {
+                spec = spec.bind("conclusionDate", patch.getConclusionDate());
+            }
+            found = spec.fetch().rowsUpdated().map(rows -> rows > 0);
+        }
+        return found.flatMap(exists -> exists
+                ? Mono.<Void>empty()
+                : Mono.<Void>error(new TodolistNotFoundException("Tarefa nao encontrada")));
+    }
+
+    public static TodolistResponse toResponse(Todolist task, TodolistLinks links) {
+        TodolistResponse response = new TodolistResponse(task.getId(), task.getTitle(), task.getDescription(),
+                task.getStatus(), task.getCreationDate(), task.getConclusionDate());
+        response.add(links.self(task.getId()));
+        return response;
+    }
+
+    // pagina e count em paralelo, cada um em sua conexao do pool
+    private Mono<PagedModel<EntityModel<TodolistResponse>>> toPagedModel(Flux<Todolist> tasks, Mono<Long> count,
+                                                                         Pageable pageable, TodolistLinks links) {
+        return Mono.zip(tasks.map(task -> EntityModel.of(toResponse(task, links))).collectList(), count)
+                .map(result -> {
+                    int size = pageable.getPageSize();
+                    int number = pageable.getPageNumber();
+                    long total = result.getT2();
+                    long pages = size == 0 ? 1 : (total + size - 1) / size;
+
+                    List<Link> pageLinks = new ArrayList<>();
+                    pageLinks.add(links.page(0, size, IanaLinkRelations.FIRST));
+                    if (number > 0) {
+                        pageLinks.add(links.page(number - 1, size, IanaLinkRelations.PREV));
+                    }
+                    pageLinks.add(links.self());
+                    if (number + 1 < pages) {
+                        pageLinks.add(links.page(number + 1, size, IanaLinkRelations.NEXT));
+                    }
+                    pageLinks.add(links.page((int) Math.max(pages - 1, 0), size, IanaLinkRelations.LAST));
+                    return PagedModel.of(result.getT1(), new PagedModel.PageMetadata(size, number, total, pages), pageLinks);
+                });
+    }
+
+    // busca size + 1 linhas: a extra so indica se existe pagina seguinte
+    // "behind" indica se ha tarefas do outro lado do cursor: decide o link prev (avancando) ou o next (voltando)
+    private Mono<TodolistSliceModel> toSliceModel(Flux<Todolist> tasks, boolean backwards, Mono<Boolean> behind, int size,
+                                                  Mono<Long> total, TodolistLinks links) {
+        // sem totals o zip recebe -1, que vira "sem totalElements" no JSON
+        return Mono.zip(tasks.collectList(), total != null ? total : Mono.just(-1L), behind).map(result -> {
+            List<Todolist> content = new ArrayList<>(result.getT1());
+            boolean hasNext = content.size() > size;
+            if (hasNext) {
+                content.remove(content.size() - 1);
+            }
+            if (backwards) {
+                // a busca com "before" percorre o indice em ordem decrescente; devolve sempre em ordem crescente
+                Collections.reverse(content);
+            }
+
+            List<EntityModel<TodolistResponse>> models = new ArrayList<>(content.size());
+            for (Todolist task : content) {
+                models.add(EntityModel.of(toResponse(task, links)));
+            }
+
+            List<Link> pageLinks = new ArrayList<>();
+            if (!content.isEmpty()) {
+                Long first = content.get(0).getId();
+                Long last = content.get(content.size() - 1).getId();
+                if (backwards ? result.getT3() : hasNext) {
+                    pageLinks.add(links.next(last));
+                }
+                if (backwards ? hasNext : result.getT3()) {
+                    pageLinks.add(links.prev(first));
+                }
+            }
+            return new TodolistSliceModel(models, size, result.getT2() >= 0 ? result.getT2() : null, pageLinks);
+        });
+    }
+
+    private static String pattern(String title) {
+        String escaped = title.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static Pageable seekPage(int size, Sort.Direction direction) {
+        // sempre a primeira pagina: o cursor entra no WHERE, entao nao ha OFFSET nem count(*)
+        return PageRequest.of(0, size, Sort.by(direction, "id"));
+    }
+}
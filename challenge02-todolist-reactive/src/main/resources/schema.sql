@@ -0,0 +1,13 @@
+create table if not exists todolist (
+    id bigint generated by default as identity primary key,
+    title varchar(255),
+    description varchar(255),
+    status varchar(20),
+    creation_date timestamp(6),
+    conclusion_date timestamp(6),
+    version bigint default 0 not null
+);
+
+-- (status, id) atende o filtro por status ja ordenado por id, sem sort em memoria
+create index if not exists idx_todolist_status_id on todolist (status, id);
+create index if not exists idx_todolist_creation_date on todolist (creation_date);
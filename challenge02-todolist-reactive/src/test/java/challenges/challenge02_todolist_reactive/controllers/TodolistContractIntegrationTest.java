@@ -0,0 +1,151 @@
+package challenges.challenge02_todolist_reactive.controllers;
+
+import challenges.challenge02_todolist_reactive.models.Todolist;
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import challenges.challenge02_todolist_reactive.repositories.TodolistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+
+// as mesmas requisicoes e respostas do TodolistContractIntegrationTest do challenge02-todolist:
+// uma mudanca no contrato de /tarefas entra nos dois
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class TodolistContractIntegrationTest {
+
+    private static final Map<String, Object> TASK = Map.of("title", "Tarefa alterada", "status", "CONCLUIDA");
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    private WebTestClient api;
+
+    @BeforeEach
+    void setUp() {
+        todolistRepository.deleteAll().block();
+        api = client.mutateWith(mockJwt().authorities(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private Todolist save(String title) {
+        return todolistRepository.save(new Todolist(null, title, "Descricao", TodoStatus.PENDENTE, null, null)).block();
+    }
+
+    @Test
+    void shouldFillCreationDate_WhenTaskIsCreated() {
+        api.post().uri("/tarefas").bodyValue(Map.of("title", "Nova tarefa"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PENDENTE")
+                .jsonPath("$.creationDate").isNotEmpty();
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenAfterAndBeforeAreBothSent() {
+        api.get().uri("/tarefas?after=1&before=10")
+                .exchange()
+                .expectStatus().isBadRequest();
+        api.get().uri("/tarefas/busca?title=tarefa&after=1&before=10")
+                .exchange()
+                .expectStatus().isBadRequest();
+        api.get().uri("/tarefas/status?status=PENDENTE&after=1&before=10")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldLinkCursorPagesOnlyWhenThereAreTasksBeyondThem() {
+        Todolist first = save("Tarefa 1");
+        save("Tarefa 2");
+        Todolist last = save("Tarefa 3");
+
+        api.get().uri("/tarefas?after={after}&size=1", first.getId() - 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Tarefa 1")
+                .jsonPath("$._links.next.href").value(href -> assertThat((String) href).contains("after=" + first.getId()))
+                .jsonPath("$._links.prev").doesNotExist();
+
+        api.get().uri("/tarefas/status?status=PENDENTE&before={before}&size=1", last.getId() + 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Tarefa 3")
+                .jsonPath("$._links.prev.href").value(href -> assertThat((String) href).contains("before=" + last.getId()))
+                .jsonPath("$._links.next").doesNotExist();
+
+        api.get().uri("/tarefas/busca?title=tarefa&after={after}&size=1", last.getId() - 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Tarefa 3")
+                .jsonPath("$._links.prev.href").exists()
+                .jsonPath("$._links.next").doesNotExist();
+    }
+
+    @Test
+    void shouldReturnETag_WhenPutHasNoIfMatch() {
+        Todolist task = save("Tarefa 1");
+
+        api.put().uri("/tarefas/{id}", task.getId()).bodyValue(TASK)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        api.put().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_MATCH, "\"1\"").bodyValue(TASK)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"");
+
+        api.put().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_MATCH, "\"1\"").bodyValue(TASK)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void shouldReturnNotFound_WhenTaskDoesNotExist() {
+        api.get().uri("/tarefas/{id}", -1)
+                .exchange()
+                .expectStatus().isNotFound();
+        api.put().uri("/tarefas/{id}", -1).bodyValue(TASK)
+                .exchange()
+                .expectStatus().isNotFound();
+        api.put().uri("/tarefas/{id}", -1).header(HttpHeaders.IF_MATCH, "\"0\"").bodyValue(TASK)
+                .exchange()
+                .expectStatus().isNotFound();
+        api.patch().uri("/tarefas/{id}", -1).bodyValue(Map.of("status", "EM_ANDAMENTO"))
+                .exchange()
+                .expectStatus().isNotFound();
+        api.delete().uri("/tarefas/{id}", -1)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldIgnoreIfMatch_OnPatchAndDelete() {
+        Todolist task = save("Tarefa 1");
+
+        // so o PUT e condicional; PATCH e DELETE escrevem qualquer que seja a versao
+        api.patch().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_MATCH, "\"99\"")
+                .bodyValue(Map.of("status", "EM_ANDAMENTO"))
+                .exchange()
+                .expectStatus().isNoContent();
+        api.delete().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_MATCH, "\"99\"")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
@@ -0,0 +1,171 @@
+package challenges.challenge02_todolist_reactive.controllers;
+
+import challenges.challenge02_todolist_reactive.models.Todolist;
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import challenges.challenge02_todolist_reactive.repositories.TodolistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class TodolistControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    private WebTestClient api;
+
+    @BeforeEach
+    void setUp() {
+        //limpar base de dados antes de cada teste
+        todolistRepository.deleteAll().block();
+        api = client.mutateWith(mockJwt().authorities(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private Todolist save(String title, String description, TodoStatus status) {
+        return todolistRepository.save(new Todolist(null, title, description, status, null, null)).block();
+    }
+
+    @Test
+    void shouldReturnAllTasksAsHal() {
+        save("Tarefa 1", "Descricao", TodoStatus.PENDENTE);
+        save("Tarefa 2", "Descricao", TodoStatus.CONCLUIDA);
+
+        api.get().uri("/tarefas").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Tarefa 1")
+                .jsonPath("$._embedded.todolistList[1].title").isEqualTo("Tarefa 2")
+                .jsonPath("$._embedded.todolistList[0]._links.self.href").exists()
+                .jsonPath("$.page.totalElements").isEqualTo(2)
+                .jsonPath("$._links.self.href").exists();
+    }
+
+    @Test
+    void shouldPageByStatusAndSearch() {
+        save("Tarefa 1", "Descricao", TodoStatus.PENDENTE);
+        save("Acordar cedo", "Acordando", TodoStatus.EM_ANDAMENTO);
+        save("Tarefa 3", "Descricao", TodoStatus.PENDENTE);
+
+        api.get().uri("/tarefas/status?status=PENDENTE&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList.length()").isEqualTo(1)
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Tarefa 1")
+                .jsonPath("$.page.totalElements").isEqualTo(2)
+                .jsonPath("$._links.next.href").exists();
+
+        api.get().uri("/tarefas/busca?title=acordar")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList.length()").isEqualTo(1)
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Acordar cedo");
+    }
+
+    @Test
+    void shouldFollowCursorLinks() {
+        Todolist first = save("Tarefa 1", null, TodoStatus.PENDENTE);
+        save("Tarefa 2", null, TodoStatus.PENDENTE);
+        save("Tarefa 3", null, TodoStatus.PENDENTE);
+
+        api.get().uri("/tarefas?after=" + first.getId() + "&size=1&totals=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$._embedded.todolistList[0].title").isEqualTo("Tarefa 2")
+                .jsonPath("$.size").isEqualTo(1)
+                .jsonPath("$.totalElements").isEqualTo(3)
+                .jsonPath("$._links.next.href").value(href -> assertThat((String) href).contains("after="))
+                .jsonPath("$._links.prev.href").value(href -> assertThat((String) href).contains("before=" + (first.getId() + 1)));
+    }
+
+    @Test
+    void shouldReturnNotModifiedAndRejectStaleIfMatch() {
+        Todolist task = save("Tarefa 1", "Descricao", TodoStatus.PENDENTE);
+
+        String etag = api.get().uri("/tarefas/{id}", task.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        api.get().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        Map<String, Object> body = Map.of("title", "Tarefa alterada", "status", "CONCLUIDA");
+        api.put().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_MATCH, etag).bodyValue(body)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        api.put().uri("/tarefas/{id}", task.getId()).header(HttpHeaders.IF_MATCH, etag).bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void shouldCreatePatchAndDelete() {
+        api.post().uri("/tarefas").bodyValue(Map.of("title", "  "))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Number id = (Number) api.post().uri("/tarefas").bodyValue(Map.of("title", "Nova tarefa"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody()
+                .get("id");
+
+        api.patch().uri("/tarefas/{id}", id).bodyValue(Map.of("status", "EM_ANDAMENTO"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        Todolist patched = todolistRepository.findById(id.longValue()).block();
+        assertThat(patched.getStatus()).isEqualTo(TodoStatus.EM_ANDAMENTO);
+        assertThat(patched.getTitle()).isEqualTo("Nova tarefa");
+        assertThat(patched.getVersion()).isEqualTo(1L);
+
+        api.delete().uri("/tarefas/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void shouldIssueTokenAndRejectAnonymousCalls() {
+        client.get().uri("/tarefas")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        String token = client.post().uri("/auth/token")
+                .headers(headers -> headers.setBasicAuth("user", "1"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody()
+                .get("access_token").toString();
+
+        client.get().uri("/tarefas")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,80 @@
+package challenges.challenge02_todolist_reactive.repositories;
+
+import challenges.challenge02_todolist_reactive.models.Todolist;
+import challenges.challenge02_todolist_reactive.models.enums.TodoStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class TodolistRepositoryTest {
+
+    @Autowired
+    private TodolistRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll().block();
+    }
+
+    @Test
+    void shouldSaveWithCreationDateAndInitialVersion() {
+        Todolist saved = repository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null)).block();
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getCreationDate()).isNotNull();
+        assertThat(saved.getVersion()).isZero();
+    }
+
+    @Test
+    void shouldFilterByStatusAndCount() {
+        repository.saveAll(java.util.List.of(
+                new Todolist(null, "Tarefa 1", null, TodoStatus.PENDENTE, null, null),
+                new Todolist(null, "Tarefa 2", null, TodoStatus.CONCLUIDA, null, null),
+                new Todolist(null, "Tarefa 3", null, TodoStatus.PENDENTE, null, null))).blockLast();
+
+        StepVerifier.create(repository.findByStatus(TodoStatus.PENDENTE, PageRequest.of(0, 5, Sort.by("id"))).map(Todolist::getTitle))
+                .expectNext("Tarefa 1", "Tarefa 3")
+                .verifyComplete();
+        StepVerifier.create(repository.countByStatus(TodoStatus.PENDENTE))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSearchTitleAndDescriptionIgnoringCase() {
+        repository.saveAll(java.util.List.of(
+                new Todolist(null, "Comprar pao", null, TodoStatus.PENDENTE, null, null),
+                new Todolist(null, "Estudar", "Ler sobre PAO de queijo", TodoStatus.PENDENTE, null, null),
+                new Todolist(null, "Correr", "Parque", TodoStatus.PENDENTE, null, null))).blockLast();
+
+        StepVerifier.create(repository.searchAsc("%pao%", 0, 5).map(Todolist::getTitle))
+                .expectNext("Comprar pao", "Estudar")
+                .verifyComplete();
+        StepVerifier.create(repository.countMatching("%pao%"))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldUpdateOnlyWhenVersionMatches() {
+        Todolist saved = repository.save(new Todolist(null, "Tarefa 1", null, TodoStatus.PENDENTE, null, null)).block();
+
+        StepVerifier.create(repository.updateByIdAndVersion(saved.getId(), 5L, "Outra", null, TodoStatus.CONCLUIDA, null, null))
+                .verifyComplete();
+        StepVerifier.create(repository.updateByIdAndVersion(saved.getId(), 0L, "Outra", null, TodoStatus.CONCLUIDA, null, null))
+                .expectNext(1L)
+                .verifyComplete();
+
+        Todolist updated = repository.findById(saved.getId()).block();
+        assertThat(updated.getTitle()).isEqualTo("Outra");
+        assertThat(updated.getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+    }
+}
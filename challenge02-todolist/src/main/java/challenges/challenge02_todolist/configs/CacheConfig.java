@@ -0,0 +1,28 @@
+package challenges.challenge02_todolist.configs;
+
+import challenges.challenge02_todolist.controllers.TodolistLinks;
+import challenges.challenge02_todolist.responsecache.TodolistResponseCache;
+import challenges.challenge02_todolist.responsecache.TodolistResponseCacheFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// o cache fica por fora da transacao: evict/put so acontecem depois do commit
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    // so as listagens; a ordem padrao (a ultima) deixa o filtro depois do Spring Security
+    @Bean
+    @ConditionalOnProperty(name = "todolist.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<TodolistResponseCacheFilter> responseCacheFilter(TodolistResponseCache responseCache,
+                                                                                   TodolistLinks links) {
+        FilterRegistrationBean<TodolistResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new TodolistResponseCacheFilter(responseCache, links));
+        registration.addUrlPatterns("/tarefas", "/tarefas/busca", "/tarefas/status");
+        return registration;
+    }
+}
@@ -0,0 +1,24 @@
+package challenges.challenge02_todolist.configs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Perfil durable: o WRITE_DELAY grava em segundo plano sem fsync; o checkpoint periodico leva ao disco o que ja foi escrito
+@Configuration
+@Profile("durable")
+@EnableScheduling
+public class DurableStorageConfig {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${todolist.durable.checkpoint-interval:PT30S}",
+            initialDelayString = "${todolist.durable.checkpoint-interval:PT30S}")
+    public void checkpoint() {
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+    }
+}
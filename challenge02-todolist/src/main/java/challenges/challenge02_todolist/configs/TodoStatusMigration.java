@@ -0,0 +1,62 @@
+package challenges.challenge02_todolist.configs;
+
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Tarefas gravadas quando o status era ORDINAL guardam o numero do enum. O ddl-auto tenta trocar o tipo da coluna,
+// mas o H2 recusa converter os numeros (fica so um aviso no log): antes de aceitar requisicoes, troca a coluna
+// numerica pela coluna com o nome do status. O @DependsOn faz rodar depois do ddl-auto criar a tabela e o indice
+@Component
+@DependsOn("entityManagerFactory")
+public class TodoStatusMigration implements InitializingBean {
+
+    private static final Set<String> ORDINAL_TYPES = Set.of("TINYINT", "SMALLINT", "INTEGER", "BIGINT");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        String statusType = columnType("status");
+        boolean ordinal = statusType != null && ORDINAL_TYPES.contains(statusType);
+        // status_name so existe no meio da migracao: sem ela e sem coluna numerica nao ha nada a fazer
+        if (!ordinal && columnType("status_name") == null) {
+            return;
+        }
+        if (ordinal) {
+            // mesma ordem alfabetica do enum(...) que o Hibernate gera em um banco novo
+            String names = Arrays.stream(TodoStatus.values()).map(TodoStatus::name).sorted()
+                    .map(name -> "'" + name + "'").collect(Collectors.joining(", "));
+            // o numero gravado era a posicao no enum
+            String byOrdinal = Arrays.stream(TodoStatus.values())
+                    .map(status -> "when " + status.ordinal() + " then '" + status.name() + "'")
+                    .collect(Collectors.joining(" ", "case status ", " end"));
+
+            // coluna nova ao lado da antiga, preenchida de novo se uma execucao anterior parou antes do drop
+            jdbcTemplate.execute("alter table todolist add column if not exists status_name enum(" + names + ")");
+            jdbcTemplate.execute("update todolist set status_name = " + byOrdinal);
+        }
+        // daqui em diante os nomes estao em status_name. Se a execucao anterior parou depois do drop, o status que
+        // existir e a coluna vazia que o ddl-auto recriou, e sai do mesmo jeito
+        jdbcTemplate.execute("drop index if exists idx_todolist_status_id");
+        jdbcTemplate.execute("alter table todolist drop column if exists status");
+        jdbcTemplate.execute("alter table todolist alter column status_name rename to status");
+        jdbcTemplate.execute("create index if not exists idx_todolist_status_id on todolist (status, id)");
+    }
+
+    private String columnType(String column) {
+        List<String> types = jdbcTemplate.queryForList("""
+                select data_type from information_schema.columns
+                where lower(table_name) = 'todolist' and lower(column_name) = ?""", String.class, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+}
@@ -2,13 +2,17 @@ package challenges.challenge02_todolist.configs;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -16,13 +20,40 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class WebSecurityConfig {
 
+    // emissao de token: o BCrypt da senha roda uma vez por token, nao a cada chamada da API
+    @Bean
+    @Order(1)
+    public SecurityFilterChain tokenFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/auth/token")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests((requests) -> requests.anyRequest().hasRole("USER"))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        return http.build();
+    }
+
+    // API: token Bearer verificado localmente (HMAC). Nao cria sessao, mas aceita a de quem ja logou pelo formulario
+    @Bean
+    @Order(2)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
+        http
+                .securityMatcher("/tarefas/**")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests((requests) -> requests.anyRequest().hasRole("USER"))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.NEVER));
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests((requests) -> requests
                         .requestMatchers("/login").permitAll()
-                        .requestMatchers("/tarefas/**").hasRole("USER")
                         .anyRequest().authenticated()
                 )
                 .formLogin((form) -> form
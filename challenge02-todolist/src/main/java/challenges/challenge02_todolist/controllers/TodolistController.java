@@ -1,23 +1,40 @@
 package challenges.challenge02_todolist.controllers;
 
 
+import challenges.challenge02_todolist.dto.PendingTaskResponse;
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.dto.TodolistTransition;
+import challenges.challenge02_todolist.dto.TodolistTransitionResponse;
+import challenges.challenge02_todolist.mappers.TodolistMapper;
 import challenges.challenge02_todolist.models.Todolist;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
 import challenges.challenge02_todolist.services.TodolistService;
+import challenges.challenge02_todolist.writebehind.PendingTask;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.server.ResponseStatusException;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
 
 
 @RestController
@@ -27,76 +44,181 @@ public class TodolistController {
     @Autowired
     private TodolistService service;
 
+    @Autowired
+    private TodolistLinks links;
+
     @GetMapping
-    public ResponseEntity<PagedModel<EntityModel<Todolist>>> findAll(
+    public ResponseEntity<CollectionModel<?>> findAll(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "5") Integer size,
-            @RequestParam(value = "direction", defaultValue = "asc") String direction
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "totals", required = false) Boolean totals,
+            @RequestParam(value = "fields", required = false) String fields
     ) {
+        // after e before sao cursores em sentidos opostos
+        if (after != null && before != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Set<String> selected = selectedFields(fields);
+        if (after != null || before != null) {
+            return ResponseEntity.ok(service.findAll(after, before, size, Boolean.TRUE.equals(totals), selected));
+        }
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "id"));
-        return ResponseEntity.ok(service.findAll(pageable));
+        return ResponseEntity.ok(service.findAll(pageable, selected));
 
     }
 
 
     @GetMapping("/busca")
-    public ResponseEntity<PagedModel<EntityModel<Todolist>>> findByTitle(
+    public ResponseEntity<CollectionModel<?>> findByTitle(
             @RequestParam(value = "title") String title,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "5") Integer size,
-            @RequestParam(value = "direction", defaultValue = "asc") String direction
-
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "totals", required = false) Boolean totals,
+            @RequestParam(value = "fields", required = false) String fields
     ) {
+        // after e before sao cursores em sentidos opostos
+        if (after != null && before != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Set<String> selected = selectedFields(fields);
+        if (after != null || before != null) {
+            return ResponseEntity.ok(service.findByTitle(title, after, before, size, Boolean.TRUE.equals(totals), selected));
+        }
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "id"));
 
-        return ResponseEntity.ok(service.findByTitle(title, pageable));
+        return ResponseEntity.ok(service.findByTitle(title, pageable, selected));
     }
 
     @GetMapping("/status")
-    public ResponseEntity<PagedModel<EntityModel<Todolist>>> findByStatus(
+    public ResponseEntity<CollectionModel<?>> findByStatus(
             @RequestParam(value = "status") TodoStatus status,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "5") Integer size,
-            @RequestParam(value = "direction", defaultValue = "asc") String direction
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "totals", required = false) Boolean totals,
+            @RequestParam(value = "fields", required = false) String fields
     ) {
+        // after e before sao cursores em sentidos opostos
+        if (after != null && before != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Set<String> selected = selectedFields(fields);
+        if (after != null || before != null) {
+            return ResponseEntity.ok(service.findByStatus(status, after, before, size, Boolean.TRUE.equals(totals), selected));
+        }
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "id"));
 
-        return ResponseEntity.ok(service.findByStatus(status, pageable));
+        return ResponseEntity.ok(service.findByStatus(status, pageable, selected));
     }
 
 
+    // alteracoes em tempo real (insert, update, delete, status) no lugar do polling; o EventSource reenvia
+    // o Last-Event-ID ao reconectar e recebe o que perdeu
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return service.subscribe(lastEventId);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<EntityModel<Todolist>> findById(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<TodolistResponse>> findById(@PathVariable Long id, WebRequest request) {
+        // a tarefa vem do cache por id, entao um If-None-Match igual responde 304 sem ir ao banco nem serializar
         Todolist task = service.findById(id);
-        EntityModel<Todolist> model = EntityModel.of(task);
-        model.add(linkTo(methodOn(TodolistController.class).findById(task.getId())).withSelfRel());
-        return ResponseEntity.ok(model);
+        String etag = etag(task.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        EntityModel<TodolistResponse> model = EntityModel.of(TodolistMapper.toResponse(task));
+        model.add(links.self(task.getId()));
+        return ResponseEntity.ok().eTag(etag).body(model);
     }
 
     @PostMapping
-    public ResponseEntity<EntityModel<Todolist>> insert(@RequestBody @Valid Todolist toDoList, BindingResult result) {
+    public ResponseEntity<RepresentationModel<?>> insert(@RequestBody @Valid Todolist toDoList, BindingResult result) {
         if (result.hasErrors()) {
             return ResponseEntity.badRequest().build();
         }
+        if (service.isWriteBehind()) {
+            PendingTask pending;
+            try {
+                pending = service.enqueue(toDoList);
+            } catch (TaskRejectedException e) {
+                // fila cheia: o cliente tenta de novo em vez de a fila crescer sem limite
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            PendingTaskResponse model = toPendingResponse(pending);
+            return ResponseEntity.accepted().location(URI.create(links.pending(pending.getTicket()).getHref())).body(model);
+        }
         Todolist savedTask = service.insert(toDoList);
-        EntityModel<Todolist> model = EntityModel.of(savedTask);
-        model.add(linkTo(methodOn(TodolistController.class).findById(savedTask.getId())).withSelfRel());
+        EntityModel<TodolistResponse> model = EntityModel.of(TodolistMapper.toResponse(savedTask));
+        model.add(links.self(savedTask.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
 
+    // status de um POST aceito pelo write-behind: 303 para a tarefa quando ja gravada
+    @GetMapping("/pendentes/{ticket}")
+    public ResponseEntity<PendingTaskResponse> findPending(@PathVariable String ticket) {
+        return service.findPending(ticket)
+                .map(pending -> {
+                    PendingTaskResponse model = toPendingResponse(pending);
+                    if (pending.getState() != PendingTask.State.GRAVADA) {
+                        return ResponseEntity.ok(model);
+                    }
+                    return ResponseEntity.status(HttpStatus.SEE_OTHER)
+                            .location(URI.create(links.self(pending.getId()).getHref()))
+                            .body(model);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping(value = "/{id}")
-    public ResponseEntity<EntityModel<Todolist>> update(@PathVariable Long id, @RequestBody @Valid Todolist toDoList, BindingResult result) {
+    public ResponseEntity<EntityModel<TodolistResponse>> update(@PathVariable Long id,
+                                                                @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                                @RequestBody @Valid Todolist toDoList, BindingResult result) {
+        if (result.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Todolist updatedTask;
+        try {
+            updatedTask = service.update(id, toDoList, expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        EntityModel<TodolistResponse> model = EntityModel.of(TodolistMapper.toResponse(updatedTask));
+        model.add(links.self(updatedTask.getId()));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).eTag(etag(updatedTask.getVersion())).body(model);
+    }
+
+    // escreve so as colunas enviadas, sem ler a tarefa antes nem depois
+    @PatchMapping(value = "/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @RequestBody @Valid TodolistPatch patch, BindingResult result) {
         if (result.hasErrors()) {
             return ResponseEntity.badRequest().build();
         }
-        Todolist updatedTask = service.update(id, toDoList);
-        EntityModel<Todolist> model = EntityModel.of(updatedTask);
-        model.add(linkTo(methodOn(TodolistController.class).findById(updatedTask.getId())).withSelfRel());
+        service.patch(id, patch);
+        return ResponseEntity.noContent().build();
+    }
 
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(model);
+    // varias tarefas para o mesmo status de uma vez; a resposta lista as que ficaram de fora e por que
+    @PostMapping("/transicoes")
+    public ResponseEntity<TodolistTransitionResponse> transition(@RequestBody @Valid TodolistTransition transition,
+                                                                 BindingResult result) {
+        // nenhuma tarefa volta para PENDENTE
+        if (result.hasErrors() || transition.getStatus().previous().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.transition(transition.getIds(), transition.getStatus()));
     }
 
     @DeleteMapping(value = "/{id}")
@@ -105,5 +227,51 @@ public class TodolistController {
         return ResponseEntity.noContent().build();
     }
 
+    private PendingTaskResponse toPendingResponse(PendingTask pending) {
+        PendingTaskResponse model = new PendingTaskResponse(pending.getTicket(), pending.getState(), pending.getId());
+        model.add(links.pending(pending.getTicket()));
+        if (pending.getId() != null) {
+            model.add(links.self(pending.getId()).withRel("tarefa"));
+        }
+        return model;
+    }
+
+    // fields=title,status seleciona colunas; "summary" e a projecao resumida (id, title, status). Sem fields: tarefa completa
+    private static Set<String> selectedFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.equals("summary")) {
+                selected.addAll(TodolistRepository.SUMMARY_FIELDS);
+            } else if (TodolistRepository.SELECTABLE_FIELDS.contains(name)) {
+                selected.add(name);
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo invalido em fields: " + name);
+            }
+        }
+        return selected;
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
 
+    // If-Match usa comparacao forte: "*" aceita qualquer versao, um ETag fraco ou invalido nunca confere
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // cai na versao inexistente abaixo
+            }
+        }
+        return -1L;
+    }
 }
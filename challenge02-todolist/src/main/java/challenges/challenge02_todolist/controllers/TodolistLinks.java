@@ -0,0 +1,37 @@
+package challenges.challenge02_todolist.controllers;
+
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+// Monta o link /tarefas/{id} sem criar um proxy de methodOn por item: a base e resolvida uma vez por requisicao
+@Component
+public class TodolistLinks {
+
+    private static final String BASE_ATTRIBUTE = TodolistLinks.class.getName() + ".base";
+
+    public Link self(Long id) {
+        return Link.of(base() + "/" + id);
+    }
+
+    public Link pending(String ticket) {
+        return Link.of(base() + "/pendentes/" + ticket);
+    }
+
+    // ja com os cabecalhos Forwarded/X-Forwarded-* aplicados; o cache de respostas usa a mesma base na chave
+    public String base() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return linkTo(TodolistController.class).toString();
+        }
+        String base = (String) attributes.getAttribute(BASE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = linkTo(TodolistController.class).toString();
+            attributes.setAttribute(BASE_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+}
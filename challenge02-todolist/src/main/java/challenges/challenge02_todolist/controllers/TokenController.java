@@ -0,0 +1,48 @@
+package challenges.challenge02_todolist.controllers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import challenges.challenge02_todolist.dto.TokenResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class TokenController {
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Value("${todolist.auth.token-ttl:PT1H}")
+    private Duration tokenTtl;
+
+    // troca usuario e senha (HTTP Basic) por um token Bearer para as chamadas em /tarefas
+    @PostMapping("/auth/token")
+    public ResponseEntity<TokenResponse> token(Authentication authentication) {
+        Instant now = Instant.now();
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("challenge02-todolist")
+                .subject(authentication.getName())
+                .issuedAt(now)
+                .expiresAt(now.plus(tokenTtl))
+                .claim("roles", roles)
+                .build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        return ResponseEntity.ok(new TokenResponse(token, "Bearer", tokenTtl.toSeconds()));
+    }
+}
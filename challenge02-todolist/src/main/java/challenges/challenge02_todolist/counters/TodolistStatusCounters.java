@@ -0,0 +1,54 @@
+package challenges.challenge02_todolist.counters;
+
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Total de tarefas por status em memoria, para as paginas de /tarefas/status nao rodarem count(*) a cada requisicao.
+// So os totais ficam aqui: cada escrita informa de qual status a tarefa saiu e para qual foi
+@Component
+public class TodolistStatusCounters {
+
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+
+    @Autowired
+    private TodolistRepository repository;
+
+    // um unico count agrupado por status no inicio, no lugar de ler todas as linhas
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long[] totals = new long[STATUSES.length];
+        for (Object[] row : repository.countByStatus()) {
+            if (row[0] != null) {
+                totals[((TodoStatus) row[0]).ordinal()] = (Long) row[1];
+            }
+        }
+        for (int i = 0; i < STATUSES.length; i++) {
+            counts.set(i, totals[i]);
+        }
+    }
+
+    // previous null: tarefa nova; status null: tarefa removida
+    public void move(TodoStatus previous, TodoStatus status) {
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            counts.decrementAndGet(previous.ordinal());
+        }
+        if (status != null) {
+            counts.incrementAndGet(status.ordinal());
+        }
+    }
+
+    public long count(TodoStatus status) {
+        return counts.get(status.ordinal());
+    }
+}
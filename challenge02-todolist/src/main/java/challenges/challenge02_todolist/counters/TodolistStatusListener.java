@@ -0,0 +1,40 @@
+package challenges.challenge02_todolist.counters;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.transactions.TransactionHooks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Mantem os contadores por status em dia com as escritas do JPA, apos o commit.
+// O status anterior vem de Todolist.getLoadedStatus(), o valor lido do banco
+@Component
+public class TodolistStatusListener {
+
+    @Lazy
+    @Autowired
+    private TodolistStatusCounters counters;
+
+    @PostPersist
+    public void onInsert(Todolist task) {
+        TodoStatus status = task.getStatus();
+        TransactionHooks.afterCommit(() -> counters.move(null, status));
+    }
+
+    @PostUpdate
+    public void onUpdate(Todolist task) {
+        TodoStatus previous = task.getLoadedStatus();
+        TodoStatus status = task.getStatus();
+        TransactionHooks.afterCommit(() -> counters.move(previous, status));
+    }
+
+    @PostRemove
+    public void onRemove(Todolist task) {
+        TodoStatus previous = task.getLoadedStatus();
+        TransactionHooks.afterCommit(() -> counters.move(previous, null));
+    }
+}
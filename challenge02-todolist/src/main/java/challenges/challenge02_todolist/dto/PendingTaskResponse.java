@@ -0,0 +1,32 @@
+package challenges.challenge02_todolist.dto;
+
+import challenges.challenge02_todolist.writebehind.PendingTask;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.RepresentationModel;
+
+// resposta do POST em modo write-behind e do link de status: o id so aparece depois da gravacao
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PendingTaskResponse extends RepresentationModel<PendingTaskResponse> {
+
+    private final String ticket;
+    private final PendingTask.State state;
+    private final Long id;
+
+    public PendingTaskResponse(String ticket, PendingTask.State state, Long id) {
+        this.ticket = ticket;
+        this.state = state;
+        this.id = id;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public PendingTask.State getState() {
+        return state;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
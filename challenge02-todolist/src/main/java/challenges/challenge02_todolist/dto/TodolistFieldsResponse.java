@@ -0,0 +1,23 @@
+package challenges.challenge02_todolist.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+// item das listagens com fields=: so as colunas pedidas vao para o JSON, no mesmo _embedded.todolistList
+@Relation(itemRelation = "todolist", collectionRelation = "todolistList")
+public class TodolistFieldsResponse extends RepresentationModel<TodolistFieldsResponse> {
+
+    private final Map<String, Object> fields;
+
+    public TodolistFieldsResponse(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,35 @@
+package challenges.challenge02_todolist.dto;
+
+import java.util.List;
+
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// corpo de POST /tarefas/transicoes: leva todas as tarefas listadas para o mesmo status
+public class TodolistTransition {
+
+    @NotEmpty(message = "Informe ao menos uma tarefa")
+    @Size(max = 10000, message = "No maximo 10000 tarefas por requisicao")
+    private List<@NotNull Long> ids;
+
+    @NotNull(message = "Status e obrigatorio")
+    private TodoStatus status;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public TodoStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TodoStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,13 @@
+package challenges.challenge02_todolist.dto;
+
+import java.util.List;
+
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+
+// updated: quantas tarefas mudaram de status. skipped: as que ficaram como estavam, com o status atual
+// (nulo quando a tarefa nao existe)
+public record TodolistTransitionResponse(TodoStatus status, int updated, List<Skipped> skipped) {
+
+    public record Skipped(Long id, TodoStatus current, String reason) {
+    }
+}
@@ -0,0 +1,294 @@
+package challenges.challenge02_todolist.events;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// Alteracoes das tarefas para GET /tarefas/eventos (SSE), no lugar do polling em /tarefas.
+// Os ultimos eventos ficam num buffer circular de tamanho fixo: quem reconecta com Last-Event-ID recebe o que perdeu.
+// Cada evento e serializado uma vez. Uma thread acompanha os assinantes e a escrita de cada um roda numa virtual
+// thread propria: uma conexao lenta segura so o proprio envio. A fila de cada assinante e o trecho do buffer entre a
+// posicao em que ele parou e o ultimo evento; quem fica mais de max-lag eventos atras com um envio preso e desligado
+// e reconecta com o Last-Event-ID
+@Component
+public class TodolistEventFeed implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TodolistEventFeed.class);
+
+    public static final String INSERT = "insert";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+    public static final String STATUS = "status";
+    // o assinante perdeu eventos que ja sairam do buffer: recarrega a lista e continua a partir deste
+    public static final String RESET = "reset";
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+    private final Event[] ring;
+    private final long firstId;
+    private long sequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final long heartbeatNanos;
+    private final long maxLag;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public TodolistEventFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${todolist.events.buffer-size:4096}") int bufferSize,
+                             @Value("${todolist.events.timeout:PT30M}") Duration timeout,
+                             @Value("${todolist.events.heartbeat:PT20S}") Duration heartbeat,
+                             @Value("${todolist.events.max-lag:1024}") long maxLag) {
+        this.objectMapper = objectMapper;
+        this.ring = new Event[bufferSize];
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.maxLag = maxLag;
+        // ids partem do relogio: um Last-Event-ID de antes de um reinicio fica abaixo do buffer e vira reset,
+        // em vez de coincidir com ids novos e pular eventos
+        this.sequence = System.currentTimeMillis() * 1000;
+        this.firstId = sequence + 1;
+
+        Gauge.builder("todolist.events.subscribers", subscribers, Set::size)
+                .description("conexoes abertas em /tarefas/eventos")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null ? lastEventId : lastId());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // no timeout o EventSource reconecta sozinho com o Last-Event-ID
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        if (subscriber.cursor != lastId()) {
+            LockSupport.unpark(worker);
+        }
+        return emitter;
+    }
+
+    // insert e update levam a tarefa inteira, para o cliente nao precisar de um GET a cada evento
+    public static Map<String, Object> data(Todolist task) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", task.getId());
+        data.put("title", task.getTitle());
+        data.put("description", task.getDescription());
+        data.put("status", task.getStatus());
+        data.put("creationDate", task.getCreationDate());
+        data.put("conclusionDate", task.getConclusionDate());
+        return data;
+    }
+
+    public void publishStatus(Long id, TodoStatus previous, TodoStatus status) {
+        if (status == null || status == previous) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", id);
+        data.put("previous", previous);
+        data.put("status", status);
+        publish(STATUS, data);
+    }
+
+    public void publishDelete(Long id) {
+        publish(DELETE, Map.of("id", id));
+    }
+
+    public void publish(String type, Map<String, Object> data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar o evento", e);
+        }
+        synchronized (this) {
+            long id = ++sequence;
+            ring[slot(id)] = new Event(id, SseEmitter.event().id(Long.toString(id)).name(type).data(json).build());
+        }
+        LockSupport.unpark(worker);
+    }
+
+    public synchronized long lastId() {
+        return sequence;
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    private void dispatch() {
+        long lastBeat = System.nanoTime();
+        while (running) {
+            long head = lastId();
+            // comentario periodico: mantem a conexao viva em proxies e descobre clientes que ja foram embora
+            boolean beat = System.nanoTime() - lastBeat >= heartbeatNanos;
+            for (Subscriber subscriber : subscribers) {
+                try {
+                    schedule(subscriber, head, beat);
+                } catch (RuntimeException e) {
+                    // um assinante com problema nao pode parar a entrega para os outros
+                    log.warn("Falha ao agendar eventos para um assinante de /tarefas/eventos", e);
+                    drop(subscriber);
+                }
+            }
+            if (beat) {
+                lastBeat = System.nanoTime();
+            }
+            if (lastId() == head) {
+                LockSupport.parkNanos(this, heartbeatNanos);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber, long head, boolean beat) {
+        if (subscriber.sending.get()) {
+            // o envio anterior ainda esta preso na conexao: atrasado demais, sai em vez de acumular eventos
+            if (head - subscriber.cursor > maxLag) {
+                log.info("Assinante de /tarefas/eventos desligado: {} eventos atrasado", head - subscriber.cursor);
+                drop(subscriber);
+            }
+            return;
+        }
+        if (subscriber.cursor == head && !beat) {
+            return;
+        }
+        subscriber.sending.set(true);
+        Thread.ofVirtual().name("todolist-events-send").start(() -> flush(subscriber, head));
+    }
+
+    // roda na virtual thread do assinante; so uma por vez, pelo sending
+    private void flush(Subscriber subscriber, long head) {
+        try {
+            if (subscriber.cursor != head) {
+                deliver(subscriber, head, new ArrayList<>());
+            } else {
+                send(subscriber, HEARTBEAT);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao enviar eventos para um assinante de /tarefas/eventos", e);
+            drop(subscriber);
+        } finally {
+            subscriber.sending.set(false);
+            // chegaram eventos durante o envio e o dispatch pode estar parado esperando o proximo
+            if (subscriber.cursor != lastId()) {
+                LockSupport.unpark(worker);
+            }
+        }
+    }
+
+    // o EventSource reconecta com o Last-Event-ID e recebe o que perdeu, ou um reset
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            // o complete espera um envio preso terminar, entao nao roda na thread do dispatch
+            Thread.ofVirtual().name("todolist-events-drop").start(subscriber.emitter::complete);
+        }
+    }
+
+    private void deliver(Subscriber subscriber, long head, List<Event> pending) {
+        pending.clear();
+        if (!eventsAfter(subscriber.cursor, head, pending)) {
+            Set<DataWithMediaType> reset = SseEmitter.event().id(Long.toString(head)).name(RESET).data("{}").build();
+            if (send(subscriber, reset)) {
+                subscriber.cursor = head;
+            }
+            return;
+        }
+        for (Event event : pending) {
+            if (!subscribers.contains(subscriber) || !send(subscriber, event.frame())) {
+                return;
+            }
+            subscriber.cursor = event.id();
+        }
+    }
+
+    // false quando parte dos eventos ja foi sobrescrita, ou o id nao e desta execucao
+    private synchronized boolean eventsAfter(long cursor, long head, List<Event> out) {
+        if (cursor < firstId - 1 || cursor > sequence || cursor < sequence - ring.length) {
+            return false;
+        }
+        for (long id = cursor + 1; id <= head; id++) {
+            out.add(ring[slot(id)]);
+        }
+        return true;
+    }
+
+    private boolean send(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        try {
+            subscriber.emitter.send(frame);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectado ou emitter ja encerrado
+            subscribers.remove(subscriber);
+            return false;
+        }
+    }
+
+    private int slot(long id) {
+        return (int) (id % ring.length);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("todolist-events").daemon(true).start(this::dispatch);
+    }
+
+    // fase padrao: para antes do servidor web, e o desligamento gracioso nao fica esperando as conexoes abertas
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        for (Subscriber subscriber : subscribers) {
+            drop(subscriber);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Event(long id, Set<DataWithMediaType> frame) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // id do ultimo evento entregue; so a virtual thread de envio altera depois do subscribe
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
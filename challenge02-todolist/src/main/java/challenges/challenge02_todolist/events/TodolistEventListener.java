@@ -0,0 +1,47 @@
+package challenges.challenge02_todolist.events;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.transactions.TransactionHooks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Eventos das escritas do JPA (inclusive os lotes do write-behind), publicados apos o commit.
+// Ultimo em @EntityListeners: quem recebe o evento ja encontra indice, contadores e cache de respostas atualizados
+@Component
+public class TodolistEventListener {
+
+    @Lazy
+    @Autowired
+    private TodolistEventFeed events;
+
+    @PostPersist
+    public void onInsert(Todolist task) {
+        Map<String, Object> data = TodolistEventFeed.data(task);
+        TransactionHooks.afterCommit(() -> events.publish(TodolistEventFeed.INSERT, data));
+    }
+
+    @PostUpdate
+    public void onUpdate(Todolist task) {
+        Long id = task.getId();
+        TodoStatus previous = task.getLoadedStatus();
+        TodoStatus status = task.getStatus();
+        Map<String, Object> data = TodolistEventFeed.data(task);
+        TransactionHooks.afterCommit(() -> {
+            events.publish(TodolistEventFeed.UPDATE, data);
+            events.publishStatus(id, previous, status);
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Todolist task) {
+        Long id = task.getId();
+        TransactionHooks.afterCommit(() -> events.publishDelete(id));
+    }
+}
@@ -3,17 +3,30 @@ package challenges.challenge02_todolist.mappers;
 import java.util.ArrayList;
 import java.util.List;
 
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.models.Todolist;
+
 public class ModelMapper {
     private static final org.modelmapper.ModelMapper mapper = new org.modelmapper.ModelMapper();
 
+    @SuppressWarnings("unchecked")
     public static <O,D> D parseObject(O origin, Class<D> destination){
+        // caminho rapido para os tipos conhecidos, sem a copia por reflexao do ModelMapper
+        if (origin instanceof Todolist task) {
+            if (destination == TodolistResponse.class) {
+                return (D) TodolistMapper.toResponse(task);
+            }
+            if (destination == Todolist.class) {
+                return (D) TodolistMapper.copy(task);
+            }
+        }
         return mapper.map(origin, destination);
     }
 
     public static <O,D> List<D> parseListObjects(List<O> origin, Class<D> destination){
-        List<D> destinationObjects = new ArrayList<D>();
+        List<D> destinationObjects = new ArrayList<D>(origin.size());
         for(O o: origin){
-            destinationObjects.add(mapper.map(o,destination));
+            destinationObjects.add(parseObject(o, destination));
         }
         return destinationObjects;
     }
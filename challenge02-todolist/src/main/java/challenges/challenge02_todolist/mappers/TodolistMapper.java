@@ -0,0 +1,24 @@
+package challenges.challenge02_todolist.mappers;
+
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.models.Todolist;
+
+// Copias escritas a mao, sem reflexao, para os caminhos de listagem
+public class TodolistMapper {
+
+    private TodolistMapper() {
+    }
+
+    public static TodolistResponse toResponse(Todolist task) {
+        return new TodolistResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getCreationDate(), task.getConclusionDate());
+    }
+
+    public static Todolist copy(Todolist task) {
+        Todolist copy = new Todolist(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getCreationDate(), task.getConclusionDate());
+        // a versao vira ETag e If-Match: a copia precisa levar a mesma
+        copy.setVersion(task.getVersion());
+        return copy;
+    }
+}
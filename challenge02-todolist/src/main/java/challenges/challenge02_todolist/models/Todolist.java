@@ -3,27 +3,54 @@ package challenges.challenge02_todolist.models;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
+import challenges.challenge02_todolist.counters.TodolistStatusListener;
+import challenges.challenge02_todolist.events.TodolistEventListener;
+import challenges.challenge02_todolist.responsecache.TodolistResponseCacheListener;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.search.TodolistSearchListener;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
-import org.springframework.hateoas.RepresentationModel;
 
 @Entity
-@Table(name = "todolist")
-public class Todolist extends RepresentationModel<Todolist> implements Serializable{
+// (status, id) atende o filtro por status ja ordenado por id, sem sort em memoria
+@Table(name = "todolist", indexes = {
+        @Index(name = "idx_todolist_status_id", columnList = "status, id"),
+        @Index(name = "idx_todolist_creation_date", columnList = "creation_date")
+})
+@EntityListeners({TodolistSearchListener.class, TodolistStatusListener.class, TodolistResponseCacheListener.class,
+        TodolistEventListener.class})
+public class Todolist implements Serializable{
     private static final long serialVersionUID = 1L;
 
+    // ids reservados em blocos: cada chamada a sequence cobre ID_ALLOCATION_SIZE inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // sequence em vez de IDENTITY: o id sai antes do insert, o que deixa o Hibernate agrupar os inserts em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todolist_seq")
+    @SequenceGenerator(name = "todolist_seq", sequenceName = "todolist_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotEmpty(message = "Titulo é obrigatório")
@@ -33,6 +60,9 @@ public class Todolist extends RepresentationModel<Todolist> implements Serializa
 
     private String description;
 
+    // pelo nome: o ordinal mudaria de significado se a ordem do enum fosse alterada
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
     private TodoStatus status;
 
     @CreationTimestamp
@@ -40,6 +70,17 @@ public class Todolist extends RepresentationModel<Todolist> implements Serializa
 
     private LocalDateTime conclusionDate;
 
+    // muda a cada escrita e vira o ETag da tarefa; os UPDATEs em SQL nativo tambem incrementam
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // status como esta no banco; os listeners comparam com o atual para saber de qual status a tarefa saiu
+    @Transient
+    private TodoStatus loadedStatus;
+
     Todolist(){}
 
     public Todolist(Long id,
@@ -105,6 +146,27 @@ public class Todolist extends RepresentationModel<Todolist> implements Serializa
         this.conclusionDate = conclusionDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @JsonIgnore
+    public TodoStatus getLoadedStatus() {
+        return loadedStatus;
+    }
+
+    // callbacks da propria entidade rodam depois dos @EntityListeners, que ainda veem o valor anterior
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberStatus() {
+        loadedStatus = status;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,34 @@
+package challenges.challenge02_todolist.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+// pagina por cursor: T e o item completo (TodolistResponse) ou so as colunas pedidas (TodolistFieldsResponse)
+public class TodolistSliceModel<T> extends CollectionModel<EntityModel<T>> {
+
+    private final int size;
+
+    private final Long totalElements;
+
+    public TodolistSliceModel(List<EntityModel<T>> content, int size, Long totalElements, List<Link> links) {
+        super(content, links, null);
+        this.size = size;
+        this.totalElements = totalElements;
+    }
+
+    @JsonProperty("size")
+    public int getSize() {
+        return size;
+    }
+
+    @JsonProperty("totalElements")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
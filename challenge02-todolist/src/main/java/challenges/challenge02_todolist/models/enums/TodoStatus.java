@@ -1,7 +1,18 @@
 package challenges.challenge02_todolist.models.enums;
 
+import java.util.List;
+
 public enum TodoStatus {
     PENDENTE,
     EM_ANDAMENTO,
-    CONCLUIDA
+    CONCLUIDA;
+
+    // transicoes permitidas em lote: a tarefa so avanca, nunca volta para PENDENTE
+    public List<TodoStatus> previous() {
+        return switch (this) {
+            case PENDENTE -> List.of();
+            case EM_ANDAMENTO -> List.of(PENDENTE);
+            case CONCLUIDA -> List.of(PENDENTE, EM_ANDAMENTO);
+        };
+    }
 }
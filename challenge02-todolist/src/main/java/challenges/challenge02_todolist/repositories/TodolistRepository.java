@@ -2,17 +2,46 @@ package  challenges.challenge02_todolist.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import  challenges.challenge02_todolist.models.Todolist;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 
 
-public interface TodolistRepository extends JpaRepository<Todolist, Long>{
+
+public interface TodolistRepository extends JpaRepository<Todolist, Long>, TodolistRepositoryCustom {
     
     Page<Todolist> findByTitleContaining(String title, Pageable pageable);
     Page<Todolist> findByStatus(TodoStatus status, Pageable pageable);
+    // sem a consulta de count: o total vem de TodolistStatusCounters
+    Slice<Todolist> findSliceByStatus(TodoStatus status, Pageable pageable);
+
+    Slice<Todolist> findByIdGreaterThan(Long id, Pageable pageable);
+    Slice<Todolist> findByIdLessThan(Long id, Pageable pageable);
+    Slice<Todolist> findByStatusAndIdGreaterThan(TodoStatus status, Long id, Pageable pageable);
+    Slice<Todolist> findByStatusAndIdLessThan(TodoStatus status, Long id, Pageable pageable);
+    // se ha pagina do outro lado do cursor, sem contar linhas
+    boolean existsByIdLessThanEqual(Long id);
+    boolean existsByIdGreaterThanEqual(Long id);
+    boolean existsByStatusAndIdLessThanEqual(TodoStatus status, Long id);
+    boolean existsByStatusAndIdGreaterThanEqual(TodoStatus status, Long id);
+
+    @Query("select t.status, count(t) from Todolist t group by t.status")
+    List<Object[]> countByStatus();
+
+    // reconstrucao do indice de busca no inicio: so as colunas usadas, sem hidratar entidades
+    @Query("select t.id, t.title, t.description from Todolist t")
+    Stream<Object[]> streamSearchFields();
+
+    // so para explicar os ids que a transicao em lote deixou de fora: leitura simples, sem trava
+    @Query("select t.id, t.status from Todolist t where t.id in :ids")
+    List<Object[]> findStatuses(Collection<Long> ids);
     
 }
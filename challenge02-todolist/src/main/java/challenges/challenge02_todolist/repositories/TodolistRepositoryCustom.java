@@ -0,0 +1,47 @@
+package challenges.challenge02_todolist.repositories;
+
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface TodolistRepositoryCustom {
+
+    // colunas que o parametro fields= pode pedir, na ordem do JSON; "version" fica de fora de proposito
+    List<String> SELECTABLE_FIELDS = List.of("id", "title", "description", "status", "creationDate", "conclusionDate");
+
+    // projecao resumida dos paineis: sem descricao nem datas
+    Set<String> SUMMARY_FIELDS = Set.of("id", "title", "status");
+
+    // a tarefa como estava antes da escrita: o status move os contadores e a versao nova e version + 1
+    record Previous(TodoStatus status, long version) {
+    }
+
+    // escritas em um unico comando que devolvem o status da tarefa antes da escrita (para os contadores);
+    // vazio quando nenhuma linha foi afetada: a tarefa nao existe ou, com versao, foi alterada por outra requisicao
+    Optional<Previous> updateById(Long id, String title, String description, TodoStatus status,
+                                  LocalDateTime creationDate, LocalDateTime conclusionDate);
+
+    Optional<Previous> updateByIdAndVersion(Long id, Long version, String title, String description, TodoStatus status,
+                                            LocalDateTime creationDate, LocalDateTime conclusionDate);
+
+    Optional<TodoStatus> patchById(Long id, TodolistPatch patch);
+
+    Optional<TodoStatus> removeById(Long id);
+
+    // so muda as tarefas cujo status atual esta em "from"; devolve o status anterior de cada uma que mudou.
+    // conclusionDate nulo mantem a data gravada
+    Map<Long, TodoStatus> transition(Collection<Long> ids, Collection<TodoStatus> from, TodoStatus status,
+                                     LocalDateTime conclusionDate);
+
+    // so as colunas pedidas, sem hidratar a entidade; status, after e before sao filtros opcionais
+    List<Map<String, Object>> findFields(Set<String> fields, TodoStatus status, Long after, Long before, Pageable pageable);
+
+    List<Map<String, Object>> findFieldsById(Set<String> fields, Collection<Long> ids);
+}
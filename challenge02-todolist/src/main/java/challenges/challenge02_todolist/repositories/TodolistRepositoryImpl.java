@@ -0,0 +1,228 @@
+package challenges.challenge02_todolist.repositories;
+
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// UPDATE montado so com as colunas presentes no PATCH e SELECT so com as colunas pedidas em fields=.
+// As escritas sao SQL nativo do H2 para devolverem, no mesmo comando, o status anterior de cada linha
+class TodolistRepositoryImpl implements TodolistRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Previous> updateById(Long id, String title, String description, TodoStatus status,
+                                         LocalDateTime creationDate, LocalDateTime conclusionDate) {
+        return update(id, null, title, description, status, creationDate, conclusionDate);
+    }
+
+    @Override
+    public Optional<Previous> updateByIdAndVersion(Long id, Long version, String title, String description,
+                                                   TodoStatus status, LocalDateTime creationDate,
+                                                   LocalDateTime conclusionDate) {
+        return update(id, version, title, description, status, creationDate, conclusionDate);
+    }
+
+    private Optional<Previous> update(Long id, Long version, String title, String description, TodoStatus status,
+                                      LocalDateTime creationDate, LocalDateTime conclusionDate) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("title", title);
+        values.put("description", description);
+        values.put("status", status);
+        values.put("creation_date", creationDate);
+        values.put("conclusion_date", conclusionDate);
+        // com versao, zero linhas afetadas indica conflito
+        List<?> rows = writeReturningOld(values, version != null ? "id = :id and version = :version" : "id = :id",
+                query -> {
+                    query.setParameter("id", id);
+                    if (version != null) {
+                        query.setParameter("version", version);
+                    }
+                });
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] columns = (Object[]) rows.get(0);
+        return Optional.of(new Previous(TodoStatus.valueOf((String) columns[1]), ((Number) columns[2]).longValue()));
+    }
+
+    @Override
+    public Optional<TodoStatus> patchById(Long id, TodolistPatch patch) {
+        if (patch.isEmpty()) {
+            // nada para escrever: so confirma que a tarefa existe
+            return previousStatus(entityManager.createNativeQuery(
+                            "select cast(status as varchar) from todolist where id = :id")
+                    .setParameter("id", id)
+                    .getResultList());
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (patch.getTitle() != null) {
+            values.put("title", patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            values.put("description", patch.getDescription());
+        }
+        if (patch.getStatus() != null) {
+            values.put("status", patch.getStatus());
+        }
+        if (patch.getConclusionDate() != null) {
+            values.put("conclusion_date", patch.getConclusionDate());
+        }
+        return previousStatus(writeReturningOld(values, "id = :id", query -> query.setParameter("id", id)));
+    }
+
+    @Override
+    public Optional<TodoStatus> removeById(Long id) {
+        return previousStatus(entityManager.createNativeQuery(
+                        "select cast(status as varchar) from old table (delete from todolist where id = :id)")
+                .setParameter("id", id)
+                .getResultList());
+    }
+
+    @Override
+    public Map<Long, TodoStatus> transition(Collection<Long> ids, Collection<TodoStatus> from, TodoStatus status,
+                                            LocalDateTime conclusionDate) {
+        Map<Long, TodoStatus> previous = new LinkedHashMap<>();
+        if (ids.isEmpty() || from.isEmpty()) {
+            return previous;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("status", status);
+        if (conclusionDate != null) {
+            values.put("conclusion_date", conclusionDate);
+        }
+        // o status atual entra no WHERE: so as linhas que mudam sao travadas, ate o commit
+        List<?> rows = writeReturningOld(values, "id in (:ids) and status in (:from)", query -> query
+                .setParameter("ids", ids)
+                .setParameter("from", from.stream().map(TodoStatus::name).toList()));
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            previous.put(((Number) columns[0]).longValue(), TodoStatus.valueOf((String) columns[1]));
+        }
+        return previous;
+    }
+
+    // UPDATE dentro de "select ... from old table (...)" do H2: o proprio comando devolve as linhas alteradas como
+    // estavam antes, entao o status e a versao anteriores saem sem SELECT previo e sem travar a linha antes de escrever
+    private List<?> writeReturningOld(Map<String, Object> values, String where, Consumer<Query> whereParameters) {
+        StringBuilder sql = new StringBuilder("select id, cast(status as varchar), version from old table (update todolist set ");
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            // nulo vai como literal: parametro nulo em SQL nativo nao tem tipo para o driver
+            sql.append(value.getKey()).append(value.getValue() != null ? " = :" + value.getKey() : " = null").append(", ");
+        }
+        sql.append("version = version + 1 where ").append(where).append(')');
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            if (value.getValue() != null) {
+                query.setParameter(value.getKey(),
+                        value.getValue() instanceof TodoStatus status ? status.name() : value.getValue());
+            }
+        }
+        whereParameters.accept(query);
+        return query.getResultList();
+    }
+
+    private static Optional<TodoStatus> previousStatus(List<?> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object row = rows.get(0);
+        Object status = row instanceof Object[] columns ? columns[1] : row;
+        return Optional.of(TodoStatus.valueOf((String) status));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<String> fields, TodoStatus status, Long after, Long before,
+                                                Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todolist> task = query.from(Todolist.class);
+        List<String> columns = select(query, task, fields);
+
+        List<Predicate> where = new ArrayList<>();
+        if (status != null) {
+            where.add(cb.equal(task.get("status"), status));
+        }
+        if (after != null) {
+            where.add(cb.greaterThan(task.get("id"), after));
+        }
+        if (before != null) {
+            where.add(cb.lessThan(task.get("id"), before));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        Sort.Order order = pageable.getSort().getOrderFor("id");
+        query.orderBy(order != null && order.isDescending() ? cb.desc(task.get("id")) : cb.asc(task.get("id")));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        return toMaps(typed.getResultList(), columns);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsById(Set<String> fields, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todolist> task = query.from(Todolist.class);
+        List<String> columns = select(query, task, fields);
+        query.where(task.get("id").in(ids));
+        return toMaps(entityManager.createQuery(query).getResultList(), columns);
+    }
+
+    // o id entra sempre no SELECT: e dele que sai o link de cada item
+    private static List<String> select(CriteriaQuery<Tuple> query, Root<Todolist> task, Set<String> fields) {
+        List<String> columns = new ArrayList<>();
+        columns.add("id");
+        for (String field : SELECTABLE_FIELDS) {
+            if (fields.contains(field) && !field.equals("id")) {
+                columns.add(field);
+            }
+        }
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            selections.add(task.get(column).alias(column));
+        }
+        query.multiselect(selections);
+        return columns;
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> tuples, List<String> columns) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : columns) {
+                row.put(column, tuple.get(column));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
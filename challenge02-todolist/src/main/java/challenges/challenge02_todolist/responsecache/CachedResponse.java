@@ -0,0 +1,49 @@
+package challenges.challenge02_todolist.responsecache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// corpo pronto para copiar na resposta; a versao em gzip e gerada no primeiro cliente que aceita gzip
+public class CachedResponse {
+
+    // abaixo disso o gzip nao compensa o cabecalho e o custo de descompactar
+    static final int GZIP_MIN_SIZE = 1024;
+
+    private final String contentType;
+    private final byte[] body;
+    private volatile byte[] gzipped;
+
+    public CachedResponse(String contentType, byte[] body) {
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public boolean isCompressible() {
+        return body.length >= GZIP_MIN_SIZE;
+    }
+
+    public byte[] gzipped() {
+        byte[] compressed = gzipped;
+        if (compressed == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compressed = out.toByteArray();
+            gzipped = compressed;
+        }
+        return compressed;
+    }
+}
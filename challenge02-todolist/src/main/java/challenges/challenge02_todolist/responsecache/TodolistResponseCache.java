@@ -0,0 +1,54 @@
+package challenges.challenge02_todolist.responsecache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Paginas de /tarefas ja serializadas. A chave leva a geracao atual: cada escrita confirmada incrementa a geracao,
+// as paginas antigas deixam de ser encontradas e saem do cache pelo limite de tamanho
+@Component
+public class TodolistResponseCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<String, CachedResponse> responses;
+    private final boolean gzip;
+
+    public TodolistResponseCache(MeterRegistry meterRegistry,
+                                 @Value("${todolist.response-cache.max-size:16MB}") DataSize maxSize,
+                                 @Value("${todolist.response-cache.gzip:true}") boolean gzip) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, CachedResponse>weigher((key, response) -> response.body().length)
+                .recordStats()
+                .build();
+        this.gzip = gzip;
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "todolist.responses");
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // chamado apos o commit, depois do indice de busca e dos contadores: quem le a nova geracao ja ve tudo atualizado
+    public void nextGeneration() {
+        generation.incrementAndGet();
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+}
@@ -0,0 +1,86 @@
+package challenges.challenge02_todolist.responsecache;
+
+import challenges.challenge02_todolist.controllers.TodolistLinks;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+// GET das listagens: um acerto copia os bytes guardados sem passar por service, HATEOAS e Jackson.
+// Registrado depois do Spring Security, entao so le o cache quem ja passou pela autorizacao
+public class TodolistResponseCacheFilter extends OncePerRequestFilter {
+
+    private final TodolistResponseCache cache;
+    private final TodolistLinks links;
+
+    public TodolistResponseCacheFilter(TodolistResponseCache cache, TodolistLinks links) {
+        this.cache = cache;
+        this.links = links;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // a geracao entra na chave antes da consulta: uma escrita confirmada no meio faz esta pagina nascer velha
+        String key = key(request);
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        cached = new CachedResponse(wrapper.getContentType(), wrapper.getContentAsByteArray());
+        cache.put(key, cached);
+        write(cached, request, response);
+    }
+
+    private void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        byte[] body = cached.body();
+        if (cache.isGzip()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (cached.isCompressible() && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = cached.gzipped();
+            }
+        }
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // os links da pagina sao absolutos e o formato depende do Accept, entao os dois entram na chave. A base vem de
+    // TodolistLinks, a mesma dos links: atras de um proxy, hosts diferentes em X-Forwarded-Host nao dividem entrada.
+    // os parametros sao ordenados para ?page=0&size=5 e ?size=5&page=0 cairem na mesma entrada
+    private String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(128)
+                .append(cache.generation()).append(' ')
+                .append(links.base()).append(' ')
+                .append(request.getRequestURI()).append('?');
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(parameter.getKey()).append('=').append(value).append('&');
+            }
+        }
+        return key.append(' ').append(request.getHeader(HttpHeaders.ACCEPT)).toString();
+    }
+}
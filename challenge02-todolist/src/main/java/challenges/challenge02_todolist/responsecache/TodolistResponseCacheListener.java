@@ -0,0 +1,27 @@
+package challenges.challenge02_todolist.responsecache;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.transactions.TransactionHooks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Toda escrita do JPA (inclusive os lotes do write-behind) invalida as paginas em cache apos o commit.
+// Fica depois do indice de busca e dos contadores em @EntityListeners, e antes dos eventos
+@Component
+public class TodolistResponseCacheListener {
+
+    @Lazy
+    @Autowired
+    private TodolistResponseCache responseCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Todolist task) {
+        TransactionHooks.afterCommit(responseCache::nextGeneration);
+    }
+}
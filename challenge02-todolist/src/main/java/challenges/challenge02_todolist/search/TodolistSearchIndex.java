@@ -0,0 +1,226 @@
+package challenges.challenge02_todolist.search;
+
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Indice invertido de trigramas sobre titulo e descricao, substitui o LIKE '%termo%' que nao usa indice
+@Component
+public class TodolistSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    @Autowired
+    private TodolistRepository repository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<Object[]> rows = repository.streamSearchFields()) {
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                postings.clear();
+                rows.forEach(row -> put((Long) row[0], (String) row[1], (String) row[2]));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void index(Long id, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            put(id, title, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // reindexa trocando so os campos informados; null mantem o texto ja indexado
+    public void merge(Long id, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            Document current = documents.get(id);
+            if (current == null) {
+                return;
+            }
+            removeDocument(id);
+            put(id, title != null ? title : current.title(), description != null ? description : current.description());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ids cujo titulo ou descricao contem o termo (ignorando maiusculas e acentos), por relevancia e depois por id
+    public List<Long> search(String query, Sort.Direction direction) {
+        String term = normalize(query);
+        List<Hit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(term)) {
+                Document document = documents.get(id);
+                int score = document.score(term);
+                if (score > 0) {
+                    hits.add(new Hit(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<Hit> byId = Comparator.comparing(Hit::id);
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(direction == Sort.Direction.DESC ? byId.reversed() : byId));
+        return hits.stream().map(Hit::id).toList();
+    }
+
+    private Collection<Long> candidates(String term) {
+        if (term.length() < GRAM) {
+            // termos curtos nao tem trigramas: verifica todos os documentos em memoria
+            return new ArrayList<>(documents.keySet());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void put(Long id, String title, String description) {
+        Document document = new Document(normalize(title), normalize(description));
+        documents.put(id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    // texto so com ASCII (o caso comum) nao tem acento para remover: pula o Normalizer
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Hit(Long id, int score) {
+    }
+
+    private record Document(String title, String description) {
+
+        Set<String> grams() {
+            Set<String> grams = TodolistSearchIndex.grams(title);
+            grams.addAll(TodolistSearchIndex.grams(description));
+            return grams;
+        }
+
+        int score(String term) {
+            if (title.equals(term)) {
+                return 100;
+            }
+            if (title.startsWith(term)) {
+                return 80;
+            }
+            if (title.contains(" " + term)) {
+                return 60;
+            }
+            if (title.contains(term)) {
+                return 40;
+            }
+            if (description.startsWith(term) || description.contains(" " + term)) {
+                return 20;
+            }
+            if (description.contains(term)) {
+                return 10;
+            }
+            return 0;
+        }
+    }
+}
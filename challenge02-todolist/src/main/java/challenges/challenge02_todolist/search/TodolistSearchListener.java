@@ -0,0 +1,35 @@
+package challenges.challenge02_todolist.search;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.transactions.TransactionHooks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Mantem o indice de busca sincronizado com as escritas do JPA, aplicando as alteracoes apos o commit
+@Component
+public class TodolistSearchListener {
+
+    // lazy: o listener e criado junto com o EntityManagerFactory, antes do repositorio usado pelo indice
+    @Lazy
+    @Autowired
+    private TodolistSearchIndex searchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Todolist task) {
+        Long id = task.getId();
+        String title = task.getTitle();
+        String description = task.getDescription();
+        TransactionHooks.afterCommit(() -> searchIndex.index(id, title, description));
+    }
+
+    @PostRemove
+    public void onRemove(Todolist task) {
+        Long id = task.getId();
+        TransactionHooks.afterCommit(() -> searchIndex.remove(id));
+    }
+}
@@ -0,0 +1,13 @@
+package challenges.challenge02_todolist.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// GET, PUT, PATCH e DELETE de uma tarefa inexistente respondem 404 nos dois stacks
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TodolistNotFoundException extends RuntimeException {
+
+    public TodolistNotFoundException(String message) {
+        super(message);
+    }
+}
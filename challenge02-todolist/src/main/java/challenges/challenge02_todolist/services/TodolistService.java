@@ -1,89 +1,206 @@
 package challenges.challenge02_todolist.services;
 
 import challenges.challenge02_todolist.controllers.TodolistController;
-import challenges.challenge02_todolist.mappers.ModelMapper;
+import challenges.challenge02_todolist.controllers.TodolistLinks;
+import challenges.challenge02_todolist.counters.TodolistStatusCounters;
+import challenges.challenge02_todolist.dto.TodolistFieldsResponse;
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.dto.TodolistTransitionResponse;
+import challenges.challenge02_todolist.events.TodolistEventFeed;
+import challenges.challenge02_todolist.mappers.TodolistMapper;
 import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.TodolistSliceModel;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
 import challenges.challenge02_todolist.repositories.TodolistRepository;
+import challenges.challenge02_todolist.responsecache.TodolistResponseCache;
+import challenges.challenge02_todolist.search.TodolistSearchIndex;
+import challenges.challenge02_todolist.transactions.TransactionHooks;
+import challenges.challenge02_todolist.writebehind.PendingTask;
+import challenges.challenge02_todolist.writebehind.TodolistWriteBehindQueue;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Service
+@Timed("todolist.service")
 public class TodolistService {
 
     @Autowired
     private TodolistRepository repository;
 
     @Autowired
-    PagedResourcesAssembler<Todolist> assembler;
+    PagedResourcesAssembler<?> assembler;
+
+    @Autowired
+    private TodolistSearchIndex searchIndex;
+
+    @Autowired
+    private TodolistLinks links;
+
+    @Autowired
+    private TodolistStatusCounters statusCounters;
 
-    public PagedModel<EntityModel<Todolist>> findAll(Pageable pageable) {
-        Page<Todolist> tasks = repository.findAll(pageable);
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TodolistResponseCache responseCache;
 
-        Page<Todolist> listTasks = tasks.map(t -> ModelMapper.parseObject(t, Todolist.class));
-        listTasks.map(
-                t -> t.add(
-                        linkTo(methodOn(TodolistController.class)
-                                .findById(t.getId())).withSelfRel()
-                )
-        );
+    @Autowired
+    private TodolistEventFeed events;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${todolist.transition.chunk-size:500}")
+    private int transitionChunkSize;
+
+    // so existe com todolist.write-behind.enabled=true
+    @Autowired(required = false)
+    private TodolistWriteBehindQueue writeBehind;
+
+    // fields == null: tarefa completa; com fields=, SELECT so das colunas pedidas, sem entidade nem copia para
+    // TodolistResponse. So o carregamento muda: paginas, cursores e links sao montados pelo mesmo codigo
+    public PagedModel<EntityModel<RepresentationModel<?>>> findAll(Pageable pageable, Set<String> fields) {
         Link link = linkTo(
                 methodOn(TodolistController.class)
-                        .findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+                        .findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc", null, null, null, fieldsParam(fields))).withSelfRel();
 
-        return assembler.toModel(listTasks, link);
+        return page(null, pageable, fields, link);
     }
 
-    public PagedModel<EntityModel<Todolist>> findByTitle(String title, Pageable pageable) {
-        Page<Todolist> tasks = repository.findByTitleContaining(title, pageable);
-        Page<Todolist> listTasks = tasks.map(t -> ModelMapper.parseObject(t, Todolist.class));
-        listTasks.map(
-                t -> t.add(
-                        linkTo(methodOn(TodolistController.class)
-                                .findById(t.getId())).withSelfRel()
-                )
-        );
+    public PagedModel<EntityModel<RepresentationModel<?>>> findByTitle(String title, Pageable pageable, Set<String> fields) {
+        Sort.Order order = pageable.getSort().getOrderFor("id");
+        List<Long> ids = searchIndex.search(title, order != null ? order.getDirection() : Sort.Direction.ASC);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
 
         Link link = linkTo(
                 methodOn(TodolistController.class)
-                        .findByTitle(title, pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+                        .findByTitle(title, pageable.getPageNumber(), pageable.getPageSize(), "asc", null, null, null, fieldsParam(fields))).withSelfRel();
 
-        return assembler.toModel(listTasks, link);
+        if (fields == null) {
+            return toPagedModel(new PageImpl<>(loadInOrder(pageIds), pageable, ids.size()), this::toResponses, link);
+        }
+        return toPagedModel(new PageImpl<>(loadFieldsInOrder(pageIds, fields), pageable, ids.size()),
+                rows -> toFieldsResponses(rows, fields), link);
+    }
 
+    public PagedModel<EntityModel<RepresentationModel<?>>> findByStatus(TodoStatus status, Pageable pageable, Set<String> fields) {
+        Link link = linkTo(
+                methodOn(TodolistController.class)
+                        .findByStatus(status, pageable.getPageNumber(), pageable.getPageSize(), "asc", null, null, null, fieldsParam(fields))).withSelfRel();
 
+        return page(status, pageable, fields, link);
     }
 
-    public PagedModel<EntityModel<Todolist>> findByStatus(TodoStatus status, Pageable pageable) {
-        Page<Todolist> tasks = repository.findByStatus(status, pageable);
-        Page<Todolist> listTasks = tasks.map(t -> ModelMapper.parseObject(t, Todolist.class));
-        listTasks.map(
-                t -> t.add(
-                        linkTo(methodOn(TodolistController.class)
-                                .findById(t.getId())).withSelfRel()
-                )
-        );
+    public TodolistSliceModel<RepresentationModel<?>> findAll(Long after, Long before, int size, boolean totals,
+                                                            Set<String> fields) {
+        Long total = totals ? repository.count() : null;
+        String fieldsParam = fieldsParam(fields);
 
-        Link link = linkTo(
-                methodOn(TodolistController.class)
-                        .findByStatus(status, pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+        return seek(null, after, before, size, total, fields,
+                cursor -> linkTo(methodOn(TodolistController.class)
+                        .findAll(null, size, null, cursor, null, totals ? true : null, fieldsParam)).withRel(IanaLinkRelations.NEXT),
+                cursor -> linkTo(methodOn(TodolistController.class)
+                        .findAll(null, size, null, null, cursor, totals ? true : null, fieldsParam)).withRel(IanaLinkRelations.PREV));
+    }
+
+    public TodolistSliceModel<RepresentationModel<?>> findByTitle(String title, Long after, Long before, int size,
+                                                                boolean totals, Set<String> fields) {
+        List<Long> ids = new ArrayList<>(searchIndex.search(title, Sort.Direction.ASC));
+        Long total = totals ? (long) ids.size() : null;
+        Collections.sort(ids);
+        boolean behind = !ids.isEmpty() && (before != null ? ids.get(ids.size() - 1) >= before : ids.get(0) <= after);
+        if (before != null) {
+            ids.removeIf(id -> id >= before);
+            Collections.reverse(ids);
+        } else {
+            ids.removeIf(id -> id <= after);
+        }
+        List<Long> pageIds = ids.subList(0, Math.min(size, ids.size()));
+        boolean hasNext = ids.size() > size;
+        String fieldsParam = fieldsParam(fields);
+        Function<Long, Link> nextLink = cursor -> linkTo(methodOn(TodolistController.class)
+                .findByTitle(title, null, size, null, cursor, null, totals ? true : null, fieldsParam)).withRel(IanaLinkRelations.NEXT);
+        Function<Long, Link> prevLink = cursor -> linkTo(methodOn(TodolistController.class)
+                .findByTitle(title, null, size, null, null, cursor, totals ? true : null, fieldsParam)).withRel(IanaLinkRelations.PREV);
+
+        if (fields == null) {
+            Slice<Todolist> tasks = new SliceImpl<>(loadInOrder(pageIds), seekPage(size, Sort.Direction.ASC), hasNext);
+            return timed("todolist.assembly", () -> toSliceModel(tasks, Todolist::getId, this::toResponses,
+                    before != null, behind, size, total, nextLink, prevLink));
+        }
+        Slice<Map<String, Object>> rows = new SliceImpl<>(loadFieldsInOrder(pageIds, fields), seekPage(size, Sort.Direction.ASC), hasNext);
+        return timed("todolist.assembly", () -> toSliceModel(rows, TodolistService::fieldsId, list -> toFieldsResponses(list, fields),
+                before != null, behind, size, total, nextLink, prevLink));
+    }
 
-        return assembler.toModel(listTasks, link);
+    public TodolistSliceModel<RepresentationModel<?>> findByStatus(TodoStatus status, Long after, Long before, int size,
+                                                                 boolean totals, Set<String> fields) {
+        Long total = totals ? statusCounters.count(status) : null;
+        String fieldsParam = fieldsParam(fields);
+
+        return seek(status, after, before, size, total, fields,
+                cursor -> linkTo(methodOn(TodolistController.class)
+                        .findByStatus(status, null, size, null, cursor, null, totals ? true : null, fieldsParam)).withRel(IanaLinkRelations.NEXT),
+                cursor -> linkTo(methodOn(TodolistController.class)
+                        .findByStatus(status, null, size, null, null, cursor, totals ? true : null, fieldsParam)).withRel(IanaLinkRelations.PREV));
     }
 
+    @Cacheable(value = "tasks", key = "#id")
     public Todolist findById(Long id) {
-        return repository.findById(id).orElseThrow(() -> new RuntimeException("Tarefa nao encontrado"));
+        return repository.findById(id).orElseThrow(() -> new TodolistNotFoundException("Tarefa nao encontrado"));
     }
 
+    @CachePut(value = "tasks", key = "#result.id")
     public Todolist insert(Todolist toDoList) {
         try {
             if (toDoList.getStatus() == null) {
@@ -95,20 +212,339 @@ public class TodolistService {
         }
     }
 
+    public boolean isWriteBehind() {
+        return writeBehind != null;
+    }
+
+    // o POST so enfileira; a gravacao acontece em lote na thread do write-behind
+    public PendingTask enqueue(Todolist toDoList) {
+        return writeBehind.offer(toDoList);
+    }
+
+    public Optional<PendingTask> findPending(String ticket) {
+        return writeBehind != null ? Optional.ofNullable(writeBehind.find(ticket)) : Optional.empty();
+    }
+
+    // inserts chegam pelo listener do JPA; update, patch e delete em SQL nativo sao publicados aqui
+    public SseEmitter subscribe(Long lastEventId) {
+        return events.subscribe(lastEventId);
+    }
+
+    @Transactional
+    @CacheEvict(value = "tasks", key = "#id")
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Tarefa nao encontrada");
-        }
-        repository.deleteById(id);
+        // o DELETE devolve o status que a tarefa tinha; nenhuma linha removida indica que ela nao existe
+        TodoStatus previous = repository.removeById(id)
+                .orElseThrow(() -> new TodolistNotFoundException("Tarefa nao encontrada"));
+        TransactionHooks.afterCommit(() -> {
+            searchIndex.remove(id);
+            statusCounters.move(previous, null);
+            responseCache.nextGeneration();
+            events.publishDelete(id);
+        });
     }
 
 
-    public Todolist update(Long id, Todolist todolist) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Tarefa nao encontrada");
+    // sem versao esperada o PUT sobrescreve a tarefa; com versao, so escreve se ela ainda for a atual
+    @Transactional
+    // o primeiro evict vale tambem quando a chamada falha (conflito); o segundo descarta o que um GET concorrente
+    // tenha posto no cache enquanto o UPDATE rodava
+    @Caching(evict = {
+            @CacheEvict(value = "tasks", key = "#id", beforeInvocation = true),
+            @CacheEvict(value = "tasks", key = "#id")
+    })
+    public Todolist update(Long id, Todolist todolist, Long expectedVersion) {
+        // sem SELECT antes e sem trava: o proprio UPDATE devolve status e versao anteriores, ou nada se nao alterou a linha
+        Optional<TodolistRepository.Previous> updated = expectedVersion == null
+                ? repository.updateById(id, todolist.getTitle(), todolist.getDescription(), todolist.getStatus(),
+                        todolist.getCreationDate(), todolist.getConclusionDate())
+                : repository.updateByIdAndVersion(id, expectedVersion, todolist.getTitle(), todolist.getDescription(),
+                        todolist.getStatus(), todolist.getCreationDate(), todolist.getConclusionDate());
+        if (updated.isEmpty()) {
+            // so no caminho de erro: distingue conflito de versao de tarefa inexistente
+            if (expectedVersion != null && repository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Tarefa alterada por outra requisicao");
+            }
+            throw new TodolistNotFoundException("Tarefa nao encontrada");
         }
+        TodoStatus previous = updated.get().status();
         todolist.setId(id);
-        return repository.save(todolist);
+        // o UPDATE soma 1 a versao que devolveu: o PUT sempre tem um ETag valido, sem ler a linha de volta
+        todolist.setVersion(updated.get().version() + 1);
+        String title = todolist.getTitle();
+        String description = todolist.getDescription();
+        TodoStatus status = todolist.getStatus();
+        Map<String, Object> data = TodolistEventFeed.data(todolist);
+        TransactionHooks.afterCommit(() -> {
+            searchIndex.index(id, title, description);
+            statusCounters.move(previous, status);
+            responseCache.nextGeneration();
+            events.publish(TodolistEventFeed.UPDATE, data);
+            events.publishStatus(id, previous, status);
+        });
+        return todolist;
+    }
+
+    // o PATCH nao le a linha de volta, entao a entrada do cache e descartada em vez de atualizada
+    @Transactional
+    @CacheEvict(value = "tasks", key = "#id")
+    public void patch(Long id, TodolistPatch patch) {
+        TodoStatus previous = repository.patchById(id, patch)
+                .orElseThrow(() -> new TodolistNotFoundException("Tarefa nao encontrada"));
+        if (patch.getTitle() != null || patch.getDescription() != null) {
+            String title = patch.getTitle();
+            String description = patch.getDescription();
+            TransactionHooks.afterCommit(() -> searchIndex.merge(id, title, description));
+        }
+        if (patch.getStatus() != null) {
+            TodoStatus status = patch.getStatus();
+            TransactionHooks.afterCommit(() -> statusCounters.move(previous, status));
+        }
+        // UPDATE em SQL nao passa pelos callbacks do JPA; registrado por ultimo para rodar depois do indice e dos contadores
+        Map<String, Object> data = patchData(id, patch);
+        TodoStatus patched = patch.getStatus();
+        TransactionHooks.afterCommit(() -> {
+            responseCache.nextGeneration();
+            events.publish(TodolistEventFeed.UPDATE, data);
+            events.publishStatus(id, previous, patched);
+        });
+    }
+
+    // o evento do PATCH leva so o que mudou
+    private static Map<String, Object> patchData(Long id, TodolistPatch patch) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", id);
+        if (patch.getTitle() != null) {
+            data.put("title", patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            data.put("description", patch.getDescription());
+        }
+        if (patch.getStatus() != null) {
+            data.put("status", patch.getStatus());
+        }
+        if (patch.getConclusionDate() != null) {
+            data.put("conclusionDate", patch.getConclusionDate());
+        }
+        return data;
+    }
+
+    // transicao em lote: um UPDATE por bloco de ids, cada bloco na sua transacao,
+    // em vez de um PUT (existsById + escrita da linha inteira) por tarefa
+    public TodolistTransitionResponse transition(List<Long> ids, TodoStatus status) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        List<TodolistTransitionResponse.Skipped> skipped = new ArrayList<>();
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += transitionChunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + transitionChunkSize, distinct.size()));
+            updated += transactionTemplate.execute(tx -> transitionChunk(chunk, status, skipped));
+        }
+        return new TodolistTransitionResponse(status, updated, skipped);
+    }
+
+    private int transitionChunk(List<Long> ids, TodoStatus status, List<TodolistTransitionResponse.Skipped> skipped) {
+        LocalDateTime conclusionDate = status == TodoStatus.CONCLUIDA ? LocalDateTime.now() : null;
+        // o status atual entra no WHERE, entao uma escrita concorrente nunca gera transicao invalida; o UPDATE
+        // devolve o status anterior das tarefas que mudaram e so essas ficam travadas ate o commit
+        Map<Long, TodoStatus> moved = repository.transition(ids, status.previous(), status, conclusionDate);
+        if (moved.size() < ids.size()) {
+            Map<Long, TodoStatus> current = statuses(ids.stream().filter(id -> !moved.containsKey(id)).toList());
+            for (Long id : ids) {
+                if (moved.containsKey(id)) {
+                    continue;
+                }
+                TodoStatus previous = current.get(id);
+                skipped.add(previous == null
+                        ? new TodolistTransitionResponse.Skipped(id, null, "Tarefa nao encontrada")
+                        : new TodolistTransitionResponse.Skipped(id, previous, "Transicao invalida"));
+            }
+        }
+        if (moved.isEmpty()) {
+            return 0;
+        }
+
+        TransactionHooks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache("tasks");
+            for (Map.Entry<Long, TodoStatus> task : moved.entrySet()) {
+                statusCounters.move(task.getValue(), status);
+                if (cache != null) {
+                    cache.evict(task.getKey());
+                }
+            }
+            responseCache.nextGeneration();
+            for (Map.Entry<Long, TodoStatus> task : moved.entrySet()) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("id", task.getKey());
+                data.put("status", status);
+                if (conclusionDate != null) {
+                    data.put("conclusionDate", conclusionDate);
+                }
+                events.publish(TodolistEventFeed.UPDATE, data);
+                events.publishStatus(task.getKey(), task.getValue(), status);
+            }
+        });
+        return moved.size();
+    }
+
+    private Map<Long, TodoStatus> statuses(List<Long> ids) {
+        Map<Long, TodoStatus> statuses = new HashMap<>();
+        for (Object[] row : repository.findStatuses(ids)) {
+            statuses.put((Long) row[0], (TodoStatus) row[1]);
+        }
+        return statuses;
+    }
+
+    private TodolistResponse toResponse(Todolist task) {
+        TodolistResponse response = TodolistMapper.toResponse(task);
+        response.add(links.self(task.getId()));
+        return response;
+    }
+
+    private List<TodolistResponse> toResponses(List<Todolist> tasks) {
+        List<TodolistResponse> responses = new ArrayList<>(tasks.size());
+        for (Todolist task : tasks) {
+            responses.add(toResponse(task));
+        }
+        return responses;
+    }
+
+    // tempo de mapeamento entidade -> DTO e de montagem HATEOAS, separado do tempo total do metodo
+    private <T> T timed(String name, Supplier<T> supplier) {
+        return meterRegistry.timer(name).record(supplier);
+    }
+
+    private List<Todolist> loadInOrder(List<Long> ids) {
+        Map<Long, Todolist> byId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Todolist::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<Map<String, Object>> loadFieldsInOrder(List<Long> ids, Set<String> fields) {
+        Map<Long, Map<String, Object>> byId = repository.findFieldsById(fields, ids).stream()
+                .collect(Collectors.toMap(row -> (Long) row.get("id"), Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    // o id sempre vem do banco por causa do link, mas so vai para o JSON se foi pedido
+    private List<TodolistFieldsResponse> toFieldsResponses(List<Map<String, Object>> rows, Set<String> fields) {
+        List<TodolistFieldsResponse> responses = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long id = (Long) row.get("id");
+            if (!fields.contains("id")) {
+                row.remove("id");
+            }
+            TodolistFieldsResponse response = new TodolistFieldsResponse(row);
+            response.add(links.self(id));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private static Long fieldsId(Map<String, Object> row) {
+        return (Long) row.get("id");
+    }
+
+    private static String fieldsParam(Set<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        return TodolistRepository.SELECTABLE_FIELDS.stream().filter(fields::contains).collect(Collectors.joining(","));
+    }
+
+    private static Pageable seekPage(int size, Sort.Direction direction) {
+        // sempre a primeira pagina: o cursor entra no WHERE, entao nao ha OFFSET nem count(*)
+        return PageRequest.of(0, size, Sort.by(direction, "id"));
+    }
+
+    // ha tarefas do outro lado do cursor? decide o link prev (avancando) ou o next (voltando)
+    private boolean behindCursor(TodoStatus status, Long after, Long before) {
+        if (before != null) {
+            return status != null
+                    ? repository.existsByStatusAndIdGreaterThanEqual(status, before)
+                    : repository.existsByIdGreaterThanEqual(before);
+        }
+        return status != null
+                ? repository.existsByStatusAndIdLessThanEqual(status, after)
+                : repository.existsByIdLessThanEqual(after);
+    }
+
+    // pagina com OFFSET: status == null lista todas; o total vem do count(*) ou dos contadores por status
+    private PagedModel<EntityModel<RepresentationModel<?>>> page(TodoStatus status, Pageable pageable, Set<String> fields, Link link) {
+        if (fields == null) {
+            Page<Todolist> tasks = status == null
+                    ? repository.findAll(pageable)
+                    : new PageImpl<>(repository.findSliceByStatus(status, pageable).getContent(), pageable, statusCounters.count(status));
+            return toPagedModel(tasks, this::toResponses, link);
+        }
+        long total = status == null ? repository.count() : statusCounters.count(status);
+        Page<Map<String, Object>> rows = new PageImpl<>(repository.findFields(fields, status, null, null, pageable), pageable, total);
+        return toPagedModel(rows, list -> toFieldsResponses(list, fields), link);
+    }
+
+    // pagina por cursor: status == null percorre todas as tarefas
+    private TodolistSliceModel<RepresentationModel<?>> seek(TodoStatus status, Long after, Long before, int size, Long total,
+                                                            Set<String> fields, Function<Long, Link> nextLink, Function<Long, Link> prevLink) {
+        boolean behind = behindCursor(status, after, before);
+        Sort.Direction direction = before != null ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (fields == null) {
+            Slice<Todolist> tasks = status == null
+                    ? (before != null
+                            ? repository.findByIdLessThan(before, seekPage(size, direction))
+                            : repository.findByIdGreaterThan(after, seekPage(size, direction)))
+                    : (before != null
+                            ? repository.findByStatusAndIdLessThan(status, before, seekPage(size, direction))
+                            : repository.findByStatusAndIdGreaterThan(status, after, seekPage(size, direction)));
+            return timed("todolist.assembly", () -> toSliceModel(tasks, Todolist::getId, this::toResponses,
+                    before != null, behind, size, total, nextLink, prevLink));
+        }
+        // uma linha a mais indica se ha proxima pagina, como o Slice do Spring Data
+        List<Map<String, Object>> found = repository.findFields(fields, status, after, before, seekPage(size + 1, direction));
+        Slice<Map<String, Object>> rows = new SliceImpl<>(found.subList(0, Math.min(size, found.size())),
+                seekPage(size, direction), found.size() > size);
+        return timed("todolist.assembly", () -> toSliceModel(rows, TodolistService::fieldsId, list -> toFieldsResponses(list, fields),
+                before != null, behind, size, total, nextLink, prevLink));
+    }
+
+    private <R> PagedModel<EntityModel<RepresentationModel<?>>> toPagedModel(
+            Page<R> rows, Function<List<R>, List<? extends RepresentationModel<?>>> map, Link link) {
+        Page<RepresentationModel<?>> page = timed("todolist.mapping",
+                () -> new PageImpl<>(new ArrayList<>(map.apply(rows.getContent())), rows.getPageable(), rows.getTotalElements()));
+        return timed("todolist.assembly", () -> assembler().toModel(page, link));
+    }
+
+    private <R> TodolistSliceModel<RepresentationModel<?>> toSliceModel(
+            Slice<R> rows, Function<R, Long> id, Function<List<R>, List<? extends RepresentationModel<?>>> map,
+            boolean backwards, boolean behind, int size, Long total, Function<Long, Link> nextLink, Function<Long, Link> prevLink) {
+        List<R> content = new ArrayList<>(rows.getContent());
+        if (backwards) {
+            // a busca com "before" percorre o indice em ordem decrescente; devolve sempre em ordem crescente
+            Collections.reverse(content);
+        }
+
+        // cursores antes do mapeamento: sem "id" em fields=, a resposta nao leva o id
+        List<Link> pageLinks = new ArrayList<>();
+        if (!content.isEmpty()) {
+            Long first = id.apply(content.get(0));
+            Long last = id.apply(content.get(content.size() - 1));
+            if (backwards ? behind : rows.hasNext()) {
+                pageLinks.add(nextLink.apply(last));
+            }
+            if (backwards ? rows.hasNext() : behind) {
+                pageLinks.add(prevLink.apply(first));
+            }
+        }
+
+        List<EntityModel<RepresentationModel<?>>> models = new ArrayList<>(content.size());
+        for (RepresentationModel<?> response : map.apply(content)) {
+            models.add(EntityModel.of(response));
+        }
+        return new TodolistSliceModel<>(models, size, total, pageLinks);
+    }
+
+    // o assembler nao depende do tipo do item: o mesmo serve para TodolistResponse e TodolistFieldsResponse
+    @SuppressWarnings("unchecked")
+    private PagedResourcesAssembler<RepresentationModel<?>> assembler() {
+        return (PagedResourcesAssembler<RepresentationModel<?>>) assembler;
     }
 
 }
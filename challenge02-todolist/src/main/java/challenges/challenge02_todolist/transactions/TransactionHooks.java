@@ -0,0 +1,26 @@
+package challenges.challenge02_todolist.transactions;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Acoes que so podem ver escritas confirmadas: indices e contadores em memoria, cache de respostas e eventos
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // roda depois do commit da transacao atual, ou na hora quando nao ha transacao;
+    // usado pelos callbacks do JPA e pelas escritas em SQL nativo, que nao passam por eles
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
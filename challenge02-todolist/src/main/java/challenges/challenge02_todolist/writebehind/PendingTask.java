@@ -0,0 +1,48 @@
+package challenges.challenge02_todolist.writebehind;
+
+import challenges.challenge02_todolist.models.Todolist;
+
+// Tarefa aceita pelo POST e ainda nao gravada: o ticket identifica o link de status devolvido no 202
+public class PendingTask {
+
+    public enum State {
+        AGUARDANDO,
+        GRAVADA,
+        FALHOU
+    }
+
+    private final String ticket;
+    private final Todolist task;
+    private volatile State state = State.AGUARDANDO;
+    private volatile Long id;
+
+    PendingTask(String ticket, Todolist task) {
+        this.ticket = ticket;
+        this.task = task;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    Todolist getTask() {
+        return task;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    void saved(Long id) {
+        this.id = id;
+        this.state = State.GRAVADA;
+    }
+
+    void failed() {
+        this.state = State.FALHOU;
+    }
+}
@@ -0,0 +1,193 @@
+package challenges.challenge02_todolist.writebehind;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Write-behind dos POSTs: as tarefas entram numa fila sem lock e uma unica thread grava em lotes,
+// um commit por lote em vez de um por tarefa. Fila cheia recusa a tarefa (503) em vez de crescer sem limite.
+@Component
+@ConditionalOnProperty(name = "todolist.write-behind.enabled", havingValue = "true")
+public class TodolistWriteBehindQueue implements SmartLifecycle {
+
+    private final ConcurrentLinkedQueue<PendingTask> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    // tickets ja respondidos continuam consultaveis por um tempo depois da gravacao
+    private final Cache<String, PendingTask> tickets = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private final TodolistRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long idleParkNanos;
+
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public TodolistWriteBehindQueue(TodolistRepository repository, PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${todolist.write-behind.capacity:10000}") int capacity,
+                                    @Value("${todolist.write-behind.batch-size:200}") int batchSize,
+                                    @Value("${todolist.write-behind.idle-wait:PT0.05S}") Duration idleWait) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.idleParkNanos = idleWait.toNanos();
+
+        Gauge.builder("todolist.writebehind.depth", depth, AtomicInteger::get)
+                .description("tarefas aceitas aguardando gravacao")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("todolist.writebehind.rejected");
+        this.failed = meterRegistry.counter("todolist.writebehind.failed");
+        this.flushTimer = meterRegistry.timer("todolist.writebehind.flush");
+        this.batchSizes = meterRegistry.summary("todolist.writebehind.batch");
+    }
+
+    public PendingTask offer(Todolist task) {
+        if (!running) {
+            rejected.increment();
+            throw new TaskRejectedException("Fila de gravacao encerrada");
+        }
+        // reserva a vaga antes de enfileirar: o limite vale mesmo com varias threads chegando juntas
+        int previous = depth.getAndIncrement();
+        if (previous >= capacity) {
+            depth.decrementAndGet();
+            rejected.increment();
+            throw new TaskRejectedException("Fila de gravacao cheia");
+        }
+        if (task.getStatus() == null) {
+            task.setStatus(TodoStatus.PENDENTE);
+        }
+        PendingTask pending = new PendingTask(UUID.randomUUID().toString(), task);
+        tickets.put(pending.getTicket(), pending);
+        queue.offer(pending);
+        if (previous == 0) {
+            LockSupport.unpark(worker);
+        }
+        return pending;
+    }
+
+    public PendingTask find(String ticket) {
+        return tickets.getIfPresent(ticket);
+    }
+
+    public int depth() {
+        return depth.get();
+    }
+
+    private void drain() {
+        List<PendingTask> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            PendingTask next = queue.poll();
+            if (next != null) {
+                depth.decrementAndGet();
+                batch.add(next);
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            }
+            // grava assim que a fila esvazia: com pouca carga o lote e pequeno e a latencia baixa,
+            // sob rajada os lotes enchem sozinhos
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            } else if (next == null) {
+                LockSupport.parkNanos(this, idleParkNanos);
+            }
+        }
+        // no desligamento o laco termina assim que a fila esvazia, com o ultimo lote ainda em memoria
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<PendingTask> batch) {
+        List<Todolist> tasks = batch.stream().map(PendingTask::getTask).toList();
+        batchSizes.record(batch.size());
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> repository.saveAll(tasks)));
+            for (PendingTask pending : batch) {
+                pending.saved(pending.getTask().getId());
+            }
+        } catch (RuntimeException e) {
+            // uma tarefa invalida nao derruba o lote: regrava uma a uma para isolar a que falhou
+            for (PendingTask pending : batch) {
+                Todolist task = pending.getTask();
+                task.setId(null);
+                task.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> repository.save(task));
+                    pending.saved(task.getId());
+                } catch (RuntimeException single) {
+                    failed.increment();
+                    pending.failed();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("todolist-write-behind").daemon(true).start(this::drain);
+    }
+
+    // no desligamento gracioso a fila e esvaziada no banco antes do pool de conexoes fechar
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // para depois do servidor web (fase menor para por ultimo): nenhum POST novo chega enquanto a fila e esvaziada
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,133 @@
+package challenges.challenge02_todolist.benchmarks;
+
+import challenges.challenge02_todolist.Application;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Inicio da aplicacao no perfil durable com milhoes de tarefas no arquivo, ate o ApplicationReadyEvent
+// (sequence migrada, contadores por status e indice de busca reconstruidos).
+// restart abre um arquivo fechado de forma limpa; recovery abre um arquivo abandonado logo apos uma escrita grande,
+// como o que sobra de um kill -9
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DurableRestartBenchmark {
+
+    private static final String DB_FILE = "todolist.mv.db";
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path dir;
+    private Path clean;
+    private Path crashed;
+    private Path run;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException, SQLException {
+        dir = Files.createTempDirectory("todolist-durable");
+        Path seed = Files.createDirectories(dir.resolve("seed"));
+        clean = Files.createDirectories(dir.resolve("clean"));
+        crashed = Files.createDirectories(dir.resolve("crashed"));
+
+        ConfigurableApplicationContext seeding = start(seed);
+        JdbcTemplate jdbcTemplate = seeding.getBean(JdbcTemplate.class);
+        for (int from = 1; from <= rows; from += 100_000) {
+            jdbcTemplate.update("""
+                    insert into todolist (id, title, description, status, creation_date, version)
+                    select x, 'Tarefa ' || x, 'Descricao da tarefa numero ' || x,
+                        case mod(x, 3) when 0 then 'PENDENTE' when 1 then 'EM_ANDAMENTO' else 'CONCLUIDA' end,
+                        localtimestamp, 0
+                    from system_range(?, ?)""", from, Math.min(from + 99_999, rows));
+        }
+        seeding.close();
+        Files.copy(seed.resolve(DB_FILE), clean.resolve(DB_FILE));
+
+        // SHUTDOWN IMMEDIATELY fecha os arquivos sem gravar nem compactar, como um kill -9 no meio das escritas
+        Files.copy(seed.resolve(DB_FILE), crashed.resolve(DB_FILE));
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + crashed.resolve("todolist") + ";WRITE_DELAY=1000", "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update todolist set status = 'CONCLUIDA', version = version + 1 where id <= " + rows / 10);
+            try {
+                statement.execute("SHUTDOWN IMMEDIATELY");
+            } catch (SQLException e) {
+                // a conexao cai junto com o banco
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    // cada abertura altera o arquivo (migracao da sequence, recuperacao), entao toda medicao parte de uma copia nova
+    @Setup(Level.Invocation)
+    public void copyFiles() throws IOException {
+        run = Files.createDirectories(dir.resolve("run"));
+        Files.createDirectories(run.resolve("clean"));
+        Files.createDirectories(run.resolve("crashed"));
+        Files.copy(clean.resolve(DB_FILE), run.resolve("clean").resolve(DB_FILE));
+        Files.copy(crashed.resolve(DB_FILE), run.resolve("crashed").resolve(DB_FILE));
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+        FileSystemUtils.deleteRecursively(run);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext restart() {
+        context = start(run.resolve("clean"));
+        return context;
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext recovery() {
+        context = start(run.resolve("crashed"));
+        return context;
+    }
+
+    private static ConfigurableApplicationContext start(Path directory) {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("durable")
+                .run("--server.port=0",
+                        "--todolist.durable.path=" + directory.resolve("todolist"),
+                        "--todolist.durable.checkpoint-interval=PT1H",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,74 @@
+package challenges.challenge02_todolist.benchmarks;
+
+import challenges.challenge02_todolist.Application;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Criacao de tarefas em massa (saveAll numa transacao, o mesmo caminho do write-behind), por lote.
+// hibernate.jdbc.batch_size=1 reproduz um insert por tarefa, como era com IDENTITY; 50 e o valor da aplicacao
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodolistInsertBenchmark {
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    @Param({"500"})
+    private int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TodolistRepository repository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN");
+        repository = context.getBean(TodolistRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Todolist> saveAll() {
+        List<Todolist> batch = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            batch.add(new Todolist(null, "Tarefa " + i, "Descricao da tarefa numero " + i,
+                    TodoStatus.values()[i % 3], null, null));
+        }
+        return transactionTemplate.execute(status -> repository.saveAll(batch));
+    }
+}
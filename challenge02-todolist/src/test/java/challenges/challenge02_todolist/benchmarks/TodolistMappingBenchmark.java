@@ -0,0 +1,92 @@
+package challenges.challenge02_todolist.benchmarks;
+
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.mappers.ModelMapper;
+import challenges.challenge02_todolist.mappers.TodolistMapper;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import org.modelmapper.config.Configuration.AccessLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara a copia por reflexao do ModelMapper com o mapeamento escrito a mao, por pagina. Os tres caminhos produzem
+// o mesmo TodolistResponse que a listagem devolve
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodolistMappingBenchmark {
+
+    private static final org.modelmapper.ModelMapper reflectionMapper = new org.modelmapper.ModelMapper();
+
+    // TodolistResponse so tem campos final e construtor com argumentos: o ModelMapper cria a instancia vazia
+    // e preenche os campos por reflexao
+    static {
+        reflectionMapper.getConfiguration().setFieldMatchingEnabled(true).setFieldAccessLevel(AccessLevel.PRIVATE);
+        reflectionMapper.createTypeMap(Todolist.class, TodolistResponse.class)
+                .setProvider(request -> new TodolistResponse(null, null, null, null, null, null));
+    }
+
+    @Param({"5", "50", "500"})
+    private int pageSize;
+
+    private List<Todolist> page;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= pageSize; i++) {
+            page.add(new Todolist(i, "Tarefa " + i, "Descricao da tarefa " + i, TodoStatus.PENDENTE, now, now.plusDays(1)));
+        }
+    }
+
+    @Benchmark
+    public void reflectionCopy(Blackhole blackhole) {
+        for (Todolist task : page) {
+            blackhole.consume(reflectionMapper.map(task, TodolistResponse.class));
+        }
+    }
+
+    @Benchmark
+    public void parseObjectFastPath(Blackhole blackhole) {
+        for (Todolist task : page) {
+            blackhole.consume(ModelMapper.parseObject(task, TodolistResponse.class));
+        }
+    }
+
+    @Benchmark
+    public void handMappedResponse(Blackhole blackhole) {
+        for (Todolist task : page) {
+            blackhole.consume(TodolistMapper.toResponse(task));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TodolistMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package challenges.challenge02_todolist.benchmarks;
+
+import challenges.challenge02_todolist.Application;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.services.TodolistService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Listagem paginada do servico e serializacao HAL da pagina, contra o H2 embutido com a aplicacao real
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodolistServiceBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"5", "50"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TodolistService service;
+    private ObjectMapper halMapper;
+    private Pageable firstPage;
+    private Pageable deepPage;
+    private PagedModel<EntityModel<RepresentationModel<?>>> model;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN");
+        service = context.getBean(TodolistService.class);
+        halMapper = halObjectMapper(context);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(rows);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"Tarefa " + i, "Descricao da tarefa numero " + i,
+                    TodoStatus.values()[i % 3].name(), now});
+        }
+        jdbc.batchUpdate("insert into todolist (id, title, description, status, creation_date) "
+                + "values (next value for todolist_seq, ?, ?, ?, ?)", batch);
+
+        firstPage = PageRequest.of(0, pageSize, Sort.by("id"));
+        deepPage = PageRequest.of(rows / pageSize - 1, pageSize, Sort.by("id"));
+        model = service.findAll(firstPage, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<RepresentationModel<?>>> findAllFirstPage() {
+        return service.findAll(firstPage, null);
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<RepresentationModel<?>>> findAllDeepPage() {
+        return service.findAll(deepPage, null);
+    }
+
+    @Benchmark
+    public byte[] serializePagedModel() throws Exception {
+        return halMapper.writeValueAsBytes(model);
+    }
+
+    // o mesmo ObjectMapper que o MVC escolhe para responder a pagina como application/hal+json
+    private static ObjectMapper halObjectMapper(ConfigurableApplicationContext context) {
+        RequestMappingHandlerAdapter adapter = context.getBean(RequestMappingHandlerAdapter.class);
+        return adapter.getMessageConverters().stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .map(AbstractJackson2HttpMessageConverter.class::cast)
+                .filter(converter -> converter.canWrite(PagedModel.class, MediaTypes.HAL_JSON))
+                .findFirst()
+                .orElseThrow()
+                .getObjectMapper();
+    }
+}
@@ -0,0 +1,61 @@
+package challenges.challenge02_todolist.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingJwtDecoderTest {
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("user")
+                .issuedAt(expiresAt.minusSeconds(60))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void shouldVerifyTokenOnlyOnce() {
+        Jwt jwt = jwt("t1", Instant.now().plusSeconds(60));
+        when(delegate.decode("t1")).thenReturn(jwt);
+
+        assertThat(decoder.decode("t1")).isSameAs(jwt);
+        assertThat(decoder.decode("t1")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("t1");
+    }
+
+    @Test
+    void shouldNotCacheExpiredTokens() {
+        when(delegate.decode("t2")).thenReturn(jwt("t2", Instant.now().minusSeconds(1)));
+
+        decoder.decode("t2");
+        decoder.decode("t2");
+
+        verify(delegate, times(2)).decode("t2");
+    }
+
+    @Test
+    void shouldNotCacheInvalidTokens() {
+        when(delegate.decode("ruim")).thenThrow(new BadJwtException("assinatura invalida"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("ruim"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("ruim"));
+
+        verify(delegate, times(2)).decode("ruim");
+    }
+}
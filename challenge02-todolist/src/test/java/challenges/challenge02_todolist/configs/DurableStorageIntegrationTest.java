@@ -0,0 +1,108 @@
+package challenges.challenge02_todolist.configs;
+
+import challenges.challenge02_todolist.Application;
+import challenges.challenge02_todolist.counters.TodolistStatusCounters;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import challenges.challenge02_todolist.search.TodolistSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DurableStorageIntegrationTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldKeepTasksAcrossRestarts() {
+        Long id;
+        try (ConfigurableApplicationContext context = start()) {
+            id = context.getBean(TodolistRepository.class)
+                    .save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.EM_ANDAMENTO, null, null)).getId();
+            context.getBean(DurableStorageConfig.class).checkpoint();
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertThat(context.getBean(TodolistRepository.class).findById(id)).isPresent();
+            //indices em memoria reconstruidos a partir do arquivo
+            assertThat(context.getBean(TodolistStatusCounters.class).count(TodoStatus.EM_ANDAMENTO)).isEqualTo(1);
+            assertThat(context.getBean(TodolistSearchIndex.class).size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldConvertOrdinalStatusColumn() throws SQLException {
+        // esquema de quando o status era gravado como ORDINAL
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("todolist"), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table todolist (id bigint not null primary key, title varchar(100), description varchar(255),
+                        status tinyint check (status between 0 and 2), creation_date timestamp(6),
+                        conclusion_date timestamp(6), version bigint default 0 not null)""");
+            statement.execute("create index idx_todolist_status_id on todolist (status, id)");
+            statement.execute("create sequence todolist_seq start with 1 increment by 50");
+            statement.execute("""
+                    insert into todolist (id, title, status) values
+                        (1, 'Tarefa 1', 0), (2, 'Tarefa 2', 1), (3, 'Tarefa 3', 2), (4, 'Tarefa 4', 2)""");
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            TodolistRepository repository = context.getBean(TodolistRepository.class);
+            assertThat(repository.findById(1L).get().getStatus()).isEqualTo(TodoStatus.PENDENTE);
+            assertThat(repository.findById(2L).get().getStatus()).isEqualTo(TodoStatus.EM_ANDAMENTO);
+            assertThat(repository.findById(3L).get().getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+            assertThat(context.getBean(TodolistStatusCounters.class).count(TodoStatus.CONCLUIDA)).isEqualTo(2);
+            //a consulta por status volta a usar o indice (status, id)
+            assertThat(context.getBean(JdbcTemplate.class).queryForList(
+                    "select column_name from information_schema.index_columns where index_name = 'IDX_TODOLIST_STATUS_ID'"
+                            + " order by ordinal_position", String.class)).containsExactly("STATUS", "ID");
+        }
+    }
+
+    @Test
+    void shouldFinishStatusMigration_WhenPreviousRunStoppedAfterDroppingOrdinalColumn() throws SQLException {
+        // a execucao anterior ja copiou os nomes para status_name e apagou a coluna numerica, mas nao renomeou
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("todolist"), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table todolist (id bigint not null primary key, title varchar(100), description varchar(255),
+                        creation_date timestamp(6), conclusion_date timestamp(6), version bigint default 0 not null,
+                        status_name enum('CONCLUIDA', 'EM_ANDAMENTO', 'PENDENTE'))""");
+            statement.execute("create sequence todolist_seq start with 1 increment by 50");
+            statement.execute("""
+                    insert into todolist (id, title, status_name) values
+                        (1, 'Tarefa 1', 'PENDENTE'), (2, 'Tarefa 2', 'EM_ANDAMENTO'), (3, 'Tarefa 3', 'CONCLUIDA')""");
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            TodolistRepository repository = context.getBean(TodolistRepository.class);
+            assertThat(repository.findById(1L).get().getStatus()).isEqualTo(TodoStatus.PENDENTE);
+            assertThat(repository.findById(2L).get().getStatus()).isEqualTo(TodoStatus.EM_ANDAMENTO);
+            assertThat(repository.findById(3L).get().getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+            assertThat(context.getBean(JdbcTemplate.class).queryForList(
+                    "select column_name from information_schema.columns where table_name = 'TODOLIST'"
+                            + " and column_name like 'STATUS%'", String.class)).containsExactly("STATUS");
+            assertThat(context.getBean(JdbcTemplate.class).queryForList(
+                    "select column_name from information_schema.index_columns where index_name = 'IDX_TODOLIST_STATUS_ID'"
+                            + " order by ordinal_position", String.class)).containsExactly("STATUS", "ID");
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("durable")
+                .run("--server.port=0", "--todolist.durable.path=" + dir.resolve("todolist"));
+    }
+}
@@ -0,0 +1,65 @@
+package challenges.challenge02_todolist.configs;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@WithMockUser(username = "user", password = "1", roles = {"USER"})
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    @Test
+    void shouldRecordTimingsForEveryLayer() throws Exception {
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("http.server.requests").tag("uri", "/tarefas").timer().count()).isPositive();
+        assertThat(meterRegistry.get("todolist.service").tag("method", "findAll").timer().count()).isPositive();
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "TodolistRepository").tag("method", "findAll").timer().count()).isPositive();
+        assertThat(meterRegistry.get("todolist.mapping").timer().count()).isPositive();
+        assertThat(meterRegistry.get("todolist.assembly").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hibernate.statements").functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void shouldPublishHistogramBuckets() throws Exception {
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(status().isOk());
+
+        Timer requests = meterRegistry.get("http.server.requests").tag("uri", "/tarefas").timer();
+        assertThat(requests.takeSnapshot().histogramCounts()).isNotEmpty();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("todolist_service_seconds_bucket")));
+    }
+}
@@ -0,0 +1,102 @@
+package challenges.challenge02_todolist.configs;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jmx.enabled=true")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+@WithMockUser(username = "user", password = "1", roles = {"USER"})
+public class SampledTracingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SampledTracing tracing;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    @AfterEach
+    void tearDown() {
+        tracing.sampleEvery(0);
+    }
+
+    @Test
+    void shouldNotLogSqlNorSecurity_WhenSamplingIsOff(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(status().isOk());
+
+        assertThat(output.getOut()).doesNotContain("org.hibernate.SQL").doesNotContain("Securing GET /tarefas");
+    }
+
+    @Test
+    void shouldLogSqlAndSecurity_WhenSamplingIsSwitchedOnOverJmx(CapturedOutput output) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Tracing,*"), null);
+        assertThat(names).hasSize(1);
+        ObjectName name = names.iterator().next();
+
+        server.invoke(name, "sampleEvery", new Object[] {1}, new String[] {Integer.class.getName()});
+        assertThat(((Map<?, ?>) server.invoke(name, "tracing", new Object[0], new String[0])).get("sampleEvery")).isEqualTo(1);
+
+        //a escrita invalida a pagina em cache, entao o GET vai ao banco
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(status().isOk());
+
+        assertThat(output.getOut()).contains("Securing GET /tarefas").contains("org.hibernate.SQL");
+    }
+
+    @Test
+    void shouldNotExposeTracingNorCachesOverHttp() throws Exception {
+        // o usuario comum da API esta autenticado, mas nao alcanca endpoints que alteram log ou cache
+        mockMvc.perform(post("/actuator/tracing")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sampleEvery\": 1}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/tracing"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/actuator/caches"))
+                .andExpect(status().isNotFound());
+        assertThat(tracing.tracing()).containsEntry("sampleEvery", 0);
+    }
+
+    @Test
+    void shouldTraceOneRequestInN() throws Exception {
+        tracing.sampleEvery(3);
+
+        int sampled = 0;
+        for (int i = 0; i < 9; i++) {
+            if (tracing.begin()) {
+                sampled++;
+                tracing.end();
+            }
+        }
+
+        assertThat(sampled).isEqualTo(3);
+    }
+}
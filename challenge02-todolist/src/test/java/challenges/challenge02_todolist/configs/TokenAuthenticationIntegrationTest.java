@@ -0,0 +1,72 @@
+package challenges.challenge02_todolist.configs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenAuthenticationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String issueToken() throws Exception {
+        String body = mockMvc.perform(post("/auth/token").with(httpBasic("user", "1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token_type").value("Bearer"))
+                .andExpect(jsonPath("$.expires_in").value(3600))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("access_token").asText();
+    }
+
+    @Test
+    void shouldAccessTasksWithBearerToken() throws Exception {
+        String token = issueToken();
+
+        mockMvc.perform(get("/tarefas").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Set-Cookie"));
+    }
+
+    @Test
+    void shouldRejectTokenRequest_WhenPasswordIsWrong() throws Exception {
+        mockMvc.perform(post("/auth/token").with(httpBasic("user", "errada")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRejectTasksRequest_WithoutOrWithTamperedToken() throws Exception {
+        mockMvc.perform(get("/tarefas"))
+                .andExpect(status().isUnauthorized());
+
+        String token = issueToken();
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        mockMvc.perform(get("/tarefas").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldNotAcceptBasicCredentialsOnTasks() throws Exception {
+        // a API so aceita o token: HTTP Basic em /tarefas voltaria a custar um BCrypt por chamada
+        mockMvc.perform(get("/tarefas").with(httpBasic("user", "1")))
+                .andExpect(status().isUnauthorized());
+        assertThat(issueToken()).isNotBlank();
+    }
+}
@@ -0,0 +1,151 @@
+package challenges.challenge02_todolist.controllers;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// as mesmas requisicoes e respostas do TodolistContractIntegrationTest do challenge02-todolist-reactive:
+// uma mudanca no contrato de /tarefas entra nos dois
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "user", password = "1", roles = {"USER"})
+public class TodolistContractIntegrationTest {
+
+    private static final String TASK = "{\"title\": \"Tarefa alterada\", \"status\": \"CONCLUIDA\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    @BeforeEach
+    void setUp() {
+        todolistRepository.deleteAll();
+    }
+
+    private Todolist save(String title) {
+        return todolistRepository.save(new Todolist(null, title, "Descricao", TodoStatus.PENDENTE, null, null));
+    }
+
+    @Test
+    void shouldFillCreationDate_WhenTaskIsCreated() throws Exception {
+        mockMvc.perform(post("/tarefas").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Nova tarefa\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDENTE"))
+                .andExpect(jsonPath("$.creationDate").isNotEmpty());
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenAfterAndBeforeAreBothSent() throws Exception {
+        mockMvc.perform(get("/tarefas?after=1&before=10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tarefas/busca?title=tarefa&after=1&before=10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tarefas/status?status=PENDENTE&after=1&before=10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldLinkCursorPagesOnlyWhenThereAreTasksBeyondThem() throws Exception {
+        Todolist first = save("Tarefa 1");
+        save("Tarefa 2");
+        Todolist last = save("Tarefa 3");
+
+        mockMvc.perform(get("/tarefas?after={after}&size=1", first.getId() - 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 1"))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=" + first.getId())))
+                .andExpect(jsonPath("$._links.prev").doesNotExist());
+
+        mockMvc.perform(get("/tarefas/status?status=PENDENTE&before={before}&size=1", last.getId() + 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 3"))
+                .andExpect(jsonPath("$._links.prev.href").value(containsString("before=" + last.getId())))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        mockMvc.perform(get("/tarefas/busca?title=tarefa&after={after}&size=1", last.getId() - 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 3"))
+                .andExpect(jsonPath("$._links.prev.href").exists())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnETag_WhenPutHasNoIfMatch() throws Exception {
+        Todolist task = save("Tarefa 1");
+
+        mockMvc.perform(put("/tarefas/{id}", task.getId()).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/tarefas/{id}", task.getId()).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        mockMvc.perform(put("/tarefas/{id}", task.getId()).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldReturnNotFound_WhenTaskDoesNotExist() throws Exception {
+        mockMvc.perform(get("/tarefas/{id}", -1))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/tarefas/{id}", -1).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/tarefas/{id}", -1).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/tarefas/{id}", -1).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"EM_ANDAMENTO\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/tarefas/{id}", -1).with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldIgnoreIfMatch_OnPatchAndDelete() throws Exception {
+        Todolist task = save("Tarefa 1");
+
+        // so o PUT e condicional; PATCH e DELETE escrevem qualquer que seja a versao
+        mockMvc.perform(patch("/tarefas/{id}", task.getId()).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"99\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"EM_ANDAMENTO\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/tarefas/{id}", task.getId()).with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"99\""))
+                .andExpect(status().isNoContent());
+    }
+}
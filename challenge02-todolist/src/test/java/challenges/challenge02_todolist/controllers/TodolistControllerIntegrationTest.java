@@ -16,6 +16,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -80,6 +83,19 @@ public class TodolistControllerIntegrationTest {
 
     }
 
+    @Test
+    void shouldRankTitleMatchesFirst_WhenSearchingTitleAndDescription() throws Exception {
+        todolistRepository.save(new Todolist(null, "Lavar roupa", "Depois de acordar", TodoStatus.PENDENTE, null, null));
+        todolistRepository.save(new Todolist(null, "Acordar cedo", "Acordando", TodoStatus.EM_ANDAMENTO, null, null));
+
+        mockMvc.perform(get("/tarefas/busca?title=acordar&size=5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Acordar cedo"))
+                .andExpect(jsonPath("$._embedded.todolistList[1].title").value("Lavar roupa"))
+                .andExpect(jsonPath("$.page.totalElements").value(2));
+    }
+
     @Test
     void shouldReturnTasks_WhenStatusMatches() throws Exception {
         Todolist task1 = new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null);
@@ -102,6 +118,122 @@ public class TodolistControllerIntegrationTest {
                 .andExpect(jsonPath("$._embedded.todolistList[0].description").value("Acordando"));
     }
 
+    @Test
+    void shouldKeepStatusTotals_WhenTasksChangeStatus() throws Exception {
+        Todolist task1 = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(patch("/tarefas/{id}", task1.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "status": "CONCLUIDA"
+                                }
+                                """))
+                .andExpect(status().isNoContent());
+
+        //o total vem dos contadores por status, atualizados tambem pelo UPDATE em SQL nativo
+        mockMvc.perform(get("/tarefas/status?status=PENDENTE&size=1"))
+                .andExpect(jsonPath("$.page.totalElements").value(1))
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 2"));
+        mockMvc.perform(get("/tarefas/status?status=CONCLUIDA&size=1"))
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    void shouldReturnTasksAfterCursor_WhenSeeking() throws Exception {
+        Todolist task1 = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist task3 = todolistRepository.save(new Todolist(null, "Tarefa 3", "Descricao", TodoStatus.PENDENTE, null, null));
+        todolistRepository.save(new Todolist(null, "Tarefa 4", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(get("/tarefas?after={after}&size=2", task1.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 2"))
+                .andExpect(jsonPath("$._embedded.todolistList[1].title").value("Tarefa 3"))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=" + task3.getId())))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.page").doesNotExist());
+
+        mockMvc.perform(get("/tarefas?before={before}&size=5&totals=true", task3.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 1"))
+                .andExpect(jsonPath("$._embedded.todolistList[1].title").value("Tarefa 2"))
+                .andExpect(jsonPath("$._links.prev").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    @Test
+    void shouldLinkPrevOnlyWhenThereAreEarlierTasks() throws Exception {
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist task2 = todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+        todolistRepository.save(new Todolist(null, "Tarefa 3", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(get("/tarefas?after=0&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=" + task2.getId())))
+                .andExpect(jsonPath("$._links.prev").doesNotExist());
+
+        mockMvc.perform(get("/tarefas/status?status=PENDENTE&after={after}&size=2&fields=title", task2.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.prev.href").value(containsString("before=")))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    void shouldLinkFieldsPagesByTaskId_WhenIdIsNotRequested() throws Exception {
+        Todolist task1 = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist task2 = todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist task3 = todolistRepository.save(new Todolist(null, "Tarefa 3", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        // o id nao vai para o JSON, mas os cursores continuam sendo os ids da pagina
+        mockMvc.perform(get("/tarefas?after={after}&size=1&fields=title", task1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 2"))
+                .andExpect(jsonPath("$._embedded.todolistList[0].id").doesNotExist())
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=" + task2.getId())))
+                .andExpect(jsonPath("$._links.prev.href").value(containsString("before=" + task2.getId())));
+
+        mockMvc.perform(get("/tarefas/busca?title=tarefa&before={before}&size=1&fields=title", task3.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 2"))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=" + task2.getId())))
+                .andExpect(jsonPath("$._links.prev.href").value(containsString("before=" + task2.getId())))
+                .andExpect(jsonPath("$._links.prev.href").value(containsString("fields=title")));
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenAfterAndBeforeAreBothSent() throws Exception {
+        mockMvc.perform(get("/tarefas?after=1&before=10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tarefas/busca?title=tarefa&after=1&before=10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao longa", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(get("/tarefas?fields=title,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].title").value("Tarefa 1"))
+                .andExpect(jsonPath("$._embedded.todolistList[0].status").value("PENDENTE"))
+                .andExpect(jsonPath("$._embedded.todolistList[0].description").doesNotExist())
+                .andExpect(jsonPath("$._embedded.todolistList[0]._links.self.href").exists())
+                .andExpect(jsonPath("$._links.self.href").value(containsString("fields=")));
+
+        mockMvc.perform(get("/tarefas/status?status=PENDENTE&fields=summary&after=0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].id").exists())
+                .andExpect(jsonPath("$._embedded.todolistList[0].description").doesNotExist());
+
+        mockMvc.perform(get("/tarefas?fields=title,senha"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturnTaskFindById() throws Exception {
         Todolist newTask = new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null);
@@ -123,6 +255,54 @@ public class TodolistControllerIntegrationTest {
                 );
     }
 
+    @Test
+    void shouldReturnNotModified_WhenETagMatches() throws Exception {
+        Todolist savedTask = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        String etag = mockMvc.perform(get("/tarefas/{id}", savedTask.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tarefas/{id}", savedTask.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        //qualquer escrita gera uma nova versao, e o ETag antigo deixa de valer
+        mockMvc.perform(patch("/tarefas/{id}", savedTask.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"CONCLUIDA\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/tarefas/{id}", savedTask.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.status").value("CONCLUIDA"));
+    }
+
+    @Test
+    void shouldReturnNewETag_WhenPutHasNoIfMatch() throws Exception {
+        Todolist savedTask = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        String etag = mockMvc.perform(put("/tarefas/{id}", savedTask.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Tarefa atualizada\", \"status\": \"EM_ANDAMENTO\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        //o ETag devolvido ja serve para o proximo PUT condicional, sem um GET no meio
+        mockMvc.perform(put("/tarefas/{id}", savedTask.getId())
+                        .with(csrf())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Tarefa atualizada\", \"status\": \"CONCLUIDA\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("ETag", "\"2\""));
+    }
+
     @Test
     void shouldInsertTaskAndReturnCreatedStatus() throws Exception {
         //dados de entrada
@@ -181,6 +361,38 @@ public class TodolistControllerIntegrationTest {
 
     }
 
+    @Test
+    void shouldPatchOnlyGivenFields() throws Exception {
+        Todolist savedTask = todolistRepository.save(
+                new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(
+                        patch("/tarefas/{id}", savedTask.getId())
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        """
+                                                {
+                                                "title": "Comprar pao",
+                                                "status": "CONCLUIDA"
+                                                }
+                                                """
+                                )
+                )
+                .andExpect(status().isNoContent());
+
+        Todolist patchedTask = todolistRepository.findById(savedTask.getId()).orElseThrow();
+        assertThat(patchedTask.getTitle()).isEqualTo("Comprar pao");
+        assertThat(patchedTask.getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+        assertThat(patchedTask.getDescription()).isEqualTo("Descricao");
+        assertThat(patchedTask.getCreationDate()).isEqualTo(savedTask.getCreationDate());
+
+        //a busca enxerga o novo titulo mesmo com o UPDATE feito fora do ciclo de vida do JPA
+        mockMvc.perform(get("/tarefas/busca?title=pao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.todolistList[0].id").value(savedTask.getId()));
+    }
+
     @Test
     void shouldDeleteTask() throws Exception {
 
@@ -197,6 +409,9 @@ public class TodolistControllerIntegrationTest {
         //Verifica se a tarefa foi excluida
         assertThat(todolistRepository.existsById(savedTask.getId())).isFalse();
 
+        mockMvc.perform(get("/tarefas/busca?title=Tarefa"))
+                .andExpect(jsonPath("$.page.totalElements").value(0));
+
 
     }
 
@@ -1,5 +1,9 @@
 package challenges.challenge02_todolist.controllers;
 
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.dto.TodolistTransitionResponse;
+import challenges.challenge02_todolist.mappers.TodolistMapper;
 import challenges.challenge02_todolist.models.Todolist;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
 import challenges.challenge02_todolist.services.TodolistService;
@@ -9,9 +13,13 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders;
@@ -19,22 +27,28 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MockMvcBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest(TodolistController.class)
+@Import(TodolistLinks.class)
 @WithMockUser(username = "user", password = "1", roles = {"USER"})
 public class TodolistControllerTest {
 
@@ -62,16 +76,16 @@ public class TodolistControllerTest {
     @Test
     void shouldReturnAllTasks() throws Exception {
         // Criando um PagedModel fictício
-        PagedModel<EntityModel<Todolist>> mockPagedModel = PagedModel.of(
+        PagedModel<EntityModel<RepresentationModel<?>>> mockPagedModel = PagedModel.of(
                 List.of(
-                        EntityModel.of(createTestTask(1L)),
-                        EntityModel.of(createTestTask(2L))
+                        EntityModel.of(TodolistMapper.toResponse(createTestTask(1L))),
+                        EntityModel.of(TodolistMapper.toResponse(createTestTask(2L)))
                 ),
                 new PagedModel.PageMetadata(10, 0, 2)
         );
 
         // Mockando o comportamento do serviço
-        when(service.findAll(any(Pageable.class))).thenReturn(mockPagedModel);
+        when(service.findAll(any(Pageable.class), isNull())).thenReturn(mockPagedModel);
 
         // Realizando a requisição ao controlador e verificando o resultado
         mockMvc.perform(get("/tarefas")
@@ -84,15 +98,15 @@ public class TodolistControllerTest {
 
     @Test
     void shouldReturnTasks_WhenTitleMatches() throws Exception {
-        PagedModel<EntityModel<Todolist>> mockPagedModel = PagedModel.of(
+        PagedModel<EntityModel<RepresentationModel<?>>> mockPagedModel = PagedModel.of(
                 List.of(
-                        EntityModel.of(createTestTask(1L)),
-                        EntityModel.of(createTestTask(2L))
+                        EntityModel.of(TodolistMapper.toResponse(createTestTask(1L))),
+                        EntityModel.of(TodolistMapper.toResponse(createTestTask(2L)))
                 ),
                 new PagedModel.PageMetadata(10, 0, 2)
         );
 
-        when(service.findByTitle(eq("Tarefa"), any(Pageable.class))).thenReturn(mockPagedModel);
+        when(service.findByTitle(eq("Tarefa"), any(Pageable.class), isNull())).thenReturn(mockPagedModel);
 
         mockMvc.perform(get("/tarefas/busca?title=Tarefa&size=3"))
                 .andExpect(status().isOk())
@@ -101,15 +115,15 @@ public class TodolistControllerTest {
 
     @Test
     void shouldReturnTask_WhenStatusMatches() throws Exception {
-        PagedModel<EntityModel<Todolist>> mockPagedModel = PagedModel.of(
+        PagedModel<EntityModel<RepresentationModel<?>>> mockPagedModel = PagedModel.of(
                 List.of(
-                        EntityModel.of(createTestTask(1L)),
-                        EntityModel.of(createTestTask(2L))
+                        EntityModel.of(TodolistMapper.toResponse(createTestTask(1L))),
+                        EntityModel.of(TodolistMapper.toResponse(createTestTask(2L)))
                 ),
                 new PagedModel.PageMetadata(10, 0, 2)
         );
 
-        when(service.findByStatus(eq(TodoStatus.PENDENTE), any(Pageable.class))).thenReturn(mockPagedModel);
+        when(service.findByStatus(eq(TodoStatus.PENDENTE), any(Pageable.class), isNull())).thenReturn(mockPagedModel);
 
         mockMvc.perform(get("/tarefas/status?status=PENDENTE&size=3"))
                 .andExpect(status().isOk())
@@ -128,7 +142,23 @@ public class TodolistControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.title").value("Tarefa 1"))
-                .andExpect(jsonPath("$.description").value("Descricao da tarefa 1"));
+                .andExpect(jsonPath("$.description").value("Descricao da tarefa 1"))
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/tarefas/1"));
+    }
+
+    @Test
+    void shouldReturnNotModified_WhenVersionIsUnchanged() throws Exception {
+        Todolist task = createTestTask(1L);
+        task.setVersion(3L);
+        when(service.findById(anyLong())).thenReturn(task);
+
+        mockMvc.perform(get("/tarefas/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(get("/tarefas/{id}", 1).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
     }
 
 
@@ -158,12 +188,28 @@ public class TodolistControllerTest {
         verify(service, times(1)).insert(any(Todolist.class));
     }
 
+    @Test
+    void shouldReturnServiceUnavailable_WhenWriteBehindQueueIsFull() throws Exception {
+        when(service.isWriteBehind()).thenReturn(true);
+        when(service.enqueue(any(Todolist.class))).thenThrow(new TaskRejectedException("Fila de gravacao cheia"));
+
+        mockMvc.perform(post("/tarefas")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Tarefa 1\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(service, never()).insert(any(Todolist.class));
+    }
+
 
     @Test
     void shouldUpdateTask() throws Exception {
         Todolist task = createTestTask(1L);
+        task.setVersion(1L);
 
-        when(service.update(anyLong(), any(Todolist.class))).thenReturn(task);
+        when(service.update(anyLong(), any(Todolist.class), isNull())).thenReturn(task);
 
         mockMvc.perform(put("/tarefas/{id}", 1)
                         .with(csrf())
@@ -181,7 +227,130 @@ public class TodolistControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.title").value("Tarefa 1"))
                 .andExpect(jsonPath("$.description").value("Descricao da tarefa 1"))
-                .andExpect(jsonPath("$.status").value("PENDENTE"));
+                .andExpect(jsonPath("$.status").value("PENDENTE"))
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    void shouldReturnPreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        when(service.update(anyLong(), any(Todolist.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("Tarefa alterada por outra requisicao"));
+
+        mockMvc.perform(put("/tarefas/{id}", 1)
+                        .with(csrf())
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "title": "Tarefa atualizada",
+                                "status": "CONCLUIDA"
+                                }
+                                """))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldReturnNewETag_WhenIfMatchIsCurrent() throws Exception {
+        Todolist task = createTestTask(1L);
+        task.setVersion(3L);
+        when(service.update(anyLong(), any(Todolist.class), eq(2L))).thenReturn(task);
+
+        mockMvc.perform(put("/tarefas/{id}", 1)
+                        .with(csrf())
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "title": "Tarefa atualizada",
+                                "status": "CONCLUIDA"
+                                }
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void shouldPatchTask() throws Exception {
+        Mockito.doNothing().when(service).patch(anyLong(), any(TodolistPatch.class));
+
+        mockMvc.perform(patch("/tarefas/{id}", 1)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "status": "CONCLUIDA"
+                                }
+                                """))
+                .andExpect(status().isNoContent());
+
+        verify(service, times(1)).patch(eq(1L), any(TodolistPatch.class));
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenPatchTitleIsBlank() throws Exception {
+        mockMvc.perform(patch("/tarefas/{id}", 1)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "title": "     "
+                                }
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).patch(anyLong(), any(TodolistPatch.class));
+    }
+
+    @Test
+    void shouldTransitionTasks() throws Exception {
+        when(service.transition(List.of(1L, 2L), TodoStatus.CONCLUIDA)).thenReturn(new TodolistTransitionResponse(
+                TodoStatus.CONCLUIDA, 1, List.of(new TodolistTransitionResponse.Skipped(2L, null, "Tarefa nao encontrada"))));
+
+        mockMvc.perform(post("/tarefas/transicoes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "ids": [1, 2],
+                                "status": "CONCLUIDA"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.skipped[0].id").value(2))
+                .andExpect(jsonPath("$.skipped[0].reason").value("Tarefa nao encontrada"));
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenTransitionTargetIsPendente() throws Exception {
+        mockMvc.perform(post("/tarefas/transicoes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "ids": [1],
+                                "status": "PENDENTE"
+                                }
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).transition(any(), any());
+    }
+
+    @Test
+    void shouldReturnBadRequest_WhenTransitionIdsAreEmpty() throws Exception {
+        mockMvc.perform(post("/tarefas/transicoes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "ids": [],
+                                "status": "CONCLUIDA"
+                                }
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).transition(any(), any());
     }
 
     @Test
@@ -192,4 +361,16 @@ public class TodolistControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void shouldOpenEventStream_FromLastEventId() throws Exception {
+        when(service.subscribe(42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/tarefas/eventos")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+
+        verify(service, times(1)).subscribe(42L);
+    }
+
 }
@@ -0,0 +1,45 @@
+package challenges.challenge02_todolist.counters;
+
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TodolistStatusCountersTest {
+
+    private TodolistStatusCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new TodolistStatusCounters();
+        counters.move(null, TodoStatus.PENDENTE);
+        counters.move(null, TodoStatus.PENDENTE);
+        counters.move(null, TodoStatus.CONCLUIDA);
+    }
+
+    @Test
+    void shouldCountTasksByStatus() {
+        assertThat(counters.count(TodoStatus.PENDENTE)).isEqualTo(2);
+        assertThat(counters.count(TodoStatus.EM_ANDAMENTO)).isZero();
+        assertThat(counters.count(TodoStatus.CONCLUIDA)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMoveTaskBetweenStatuses() {
+        counters.move(TodoStatus.PENDENTE, TodoStatus.EM_ANDAMENTO);
+        // escrita que nao muda o status nao conta duas vezes
+        counters.move(TodoStatus.EM_ANDAMENTO, TodoStatus.EM_ANDAMENTO);
+
+        assertThat(counters.count(TodoStatus.PENDENTE)).isEqualTo(1);
+        assertThat(counters.count(TodoStatus.EM_ANDAMENTO)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDecrement_WhenTaskIsRemoved() {
+        counters.move(TodoStatus.CONCLUIDA, null);
+
+        assertThat(counters.count(TodoStatus.CONCLUIDA)).isZero();
+        assertThat(counters.count(TodoStatus.PENDENTE)).isEqualTo(2);
+    }
+}
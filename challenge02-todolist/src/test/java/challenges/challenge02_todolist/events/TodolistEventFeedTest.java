@@ -0,0 +1,119 @@
+package challenges.challenge02_todolist.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TodolistEventFeedTest {
+
+    private static final int MAX_LAG = 4;
+
+    private TodolistEventFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new TodolistEventFeed(new ObjectMapper(), new SimpleMeterRegistry(), 64,
+                Duration.ofMinutes(1), Duration.ofSeconds(20), MAX_LAG);
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void shouldKeepDeliveringToOthers_WhenOneSubscriberIsSlow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release, null);
+        RecordingEmitter fast = new RecordingEmitter(null, null);
+        feed.subscribe(slow, null);
+        feed.subscribe(fast, null);
+
+        // o envio do lento fica preso no primeiro evento e nao atrasa o rapido, que recebe cada evento em seguida
+        for (int i = 0; i < 10; i++) {
+            feed.publish(TodolistEventFeed.INSERT, Map.of("id", i));
+            int received = i + 1;
+            await(() -> fast.frames.size() == received);
+        }
+        // com o envio preso e mais de MAX_LAG eventos atras, o lento e desligado
+        await(() -> feed.subscribers() == 1);
+        release.countDown();
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.frames).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldDropSubscriberAndKeepRunning_WhenSendThrows() throws Exception {
+        RecordingEmitter broken = new RecordingEmitter(null, new IllegalArgumentException("falha no conversor"));
+        RecordingEmitter healthy = new RecordingEmitter(null, null);
+        feed.subscribe(broken, null);
+        feed.subscribe(healthy, null);
+
+        feed.publish(TodolistEventFeed.INSERT, Map.of("id", 1));
+        await(() -> feed.subscribers() == 1);
+        assertThat(broken.completed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // a thread de entrega continua viva depois da excecao
+        feed.publish(TodolistEventFeed.INSERT, Map.of("id", 2));
+        await(() -> healthy.frames.size() == 2);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    // emitter sem conexao: guarda os frames, e opcionalmente trava ou falha no send
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private final RuntimeException failure;
+
+        private RecordingEmitter(CountDownLatch release, RuntimeException failure) {
+            this.release = release;
+            this.failure = failure;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            frames.add(items);
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
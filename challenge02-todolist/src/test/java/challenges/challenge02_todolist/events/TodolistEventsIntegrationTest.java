@@ -0,0 +1,98 @@
+package challenges.challenge02_todolist.events;
+
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.services.TodolistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "todolist.events.buffer-size=4")
+@AutoConfigureMockMvc
+@WithMockUser(username = "user", password = "1", roles = {"USER"})
+public class TodolistEventsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodolistService service;
+
+    @Autowired
+    private TodolistEventFeed events;
+
+    @Test
+    void shouldStreamInsertUpdateStatusAndDelete() throws Exception {
+        MvcResult stream = subscribe(null);
+
+        Todolist task = service.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        TodolistPatch patch = new TodolistPatch();
+        patch.setStatus(TodoStatus.CONCLUIDA);
+        service.patch(task.getId(), patch);
+        service.delete(task.getId());
+
+        String body = await(stream, "event:delete");
+        assertThat(body)
+                .contains("event:insert\ndata:{\"id\":" + task.getId() + ",\"title\":\"Tarefa 1\"")
+                .contains("event:update\ndata:{\"id\":" + task.getId() + ",\"status\":\"CONCLUIDA\"}")
+                .contains("event:status\ndata:{\"id\":" + task.getId() + ",\"previous\":\"PENDENTE\",\"status\":\"CONCLUIDA\"}")
+                .contains("event:delete\ndata:{\"id\":" + task.getId() + "}");
+        assertThat(body.indexOf("event:insert")).isLessThan(body.indexOf("event:update"));
+        assertThat(body.indexOf("event:status")).isLessThan(body.indexOf("event:delete"));
+    }
+
+    @Test
+    void shouldReplayMissedEvents_FromLastEventId() throws Exception {
+        long lastSeen = events.lastId();
+        Todolist first = service.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist second = service.insert(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        String body = await(subscribe(lastSeen), "\"id\":" + second.getId() + ",");
+
+        assertThat(body)
+                .contains("id:" + (lastSeen + 1) + "\nevent:insert\ndata:{\"id\":" + first.getId() + ",")
+                .doesNotContain("event:reset");
+    }
+
+    @Test
+    void shouldSendReset_WhenLastEventIdLeftTheBuffer() throws Exception {
+        long lastSeen = events.lastId();
+        for (int i = 0; i < 5; i++) {
+            service.insert(new Todolist(null, "Tarefa " + i, "Descricao", TodoStatus.PENDENTE, null, null));
+        }
+
+        String body = await(subscribe(lastSeen), "event:reset");
+
+        assertThat(body).contains("id:" + events.lastId() + "\nevent:reset").doesNotContain("event:insert");
+    }
+
+    private MvcResult subscribe(Long lastEventId) throws Exception {
+        var request = get("/tarefas/eventos").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    // a entrega e feita pela thread do feed, fora da requisicao
+    private static String await(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = stream.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertThat(body).contains(expected);
+        return body;
+    }
+}
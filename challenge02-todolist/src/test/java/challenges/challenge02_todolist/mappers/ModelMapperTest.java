@@ -0,0 +1,56 @@
+package challenges.challenge02_todolist.mappers;
+
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModelMapperTest {
+
+    private Todolist createTestTask(Long id) {
+        Todolist task = new Todolist(id, "Tarefa " + id, "Descricao " + id, TodoStatus.EM_ANDAMENTO,
+                LocalDateTime.of(2023, 1, 15, 10, 0),
+                LocalDateTime.of(2023, 1, 20, 18, 0));
+        task.setVersion(3L);
+        return task;
+    }
+
+    @Test
+    void shouldMapTaskToResponse() {
+        Todolist task = createTestTask(1L);
+
+        TodolistResponse response = ModelMapper.parseObject(task, TodolistResponse.class);
+
+        assertThat(response.getId()).isEqualTo(1L);
+        assertThat(response.getTitle()).isEqualTo("Tarefa 1");
+        assertThat(response.getDescription()).isEqualTo("Descricao 1");
+        assertThat(response.getStatus()).isEqualTo(TodoStatus.EM_ANDAMENTO);
+        assertThat(response.getCreationDate()).isEqualTo(task.getCreationDate());
+        assertThat(response.getConclusionDate()).isEqualTo(task.getConclusionDate());
+        assertThat(response.getLinks()).isEmpty();
+    }
+
+    @Test
+    void shouldCopyTask() {
+        Todolist task = createTestTask(1L);
+
+        Todolist copy = ModelMapper.parseObject(task, Todolist.class);
+
+        assertThat(copy).isNotSameAs(task);
+        assertThat(copy).isEqualTo(task);
+        assertThat(copy.getVersion()).isEqualTo(task.getVersion());
+    }
+
+    @Test
+    void shouldMapList() {
+        List<TodolistResponse> responses = ModelMapper.parseListObjects(
+                List.of(createTestTask(1L), createTestTask(2L)), TodolistResponse.class);
+
+        assertThat(responses).extracting(TodolistResponse::getId).containsExactly(1L, 2L);
+    }
+}
@@ -1,5 +1,6 @@
 package challenges.challenge02_todolist.repositories;
 
+import challenges.challenge02_todolist.dto.TodolistPatch;
 import challenges.challenge02_todolist.models.Todolist;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,10 +10,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -22,6 +29,9 @@ public class TodolistRepositoryIntegrationTest {
     @Autowired
     private TodolistRepository todolistRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         todolistRepository.deleteAll();
@@ -136,4 +146,123 @@ public class TodolistRepositoryIntegrationTest {
         Todolist task = todolistRepository.findById(999L).orElse(null);
         assertThat(task).isNull();
     }
+
+    @Test
+    void shouldReturnSliceAfterId_WhenSeeking() {
+        Todolist first = null;
+        for (int i = 1; i <= 5; i++) {
+            Todolist saved = todolistRepository.save(new Todolist(null, "Tarefa " + i, "Descricao " + i, TodoStatus.PENDENTE, null, null));
+            if (first == null) {
+                first = saved;
+            }
+        }
+
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("id").ascending());
+        Slice<Todolist> slice = todolistRepository.findByIdGreaterThan(first.getId(), pageable);
+
+        assertThat(slice.getContent()).hasSize(2);
+        assertThat(slice.getContent().get(0).getTitle()).isEqualTo("Tarefa 2");
+        assertThat(slice.getContent().get(1).getTitle()).isEqualTo("Tarefa 3");
+        assertThat(slice.hasNext()).isTrue();
+    }
+
+    @Test
+    void shouldSelectOnlyRequestedFields() {
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao longa", TodoStatus.PENDENTE, null, null));
+        todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao longa", TodoStatus.CONCLUIDA, null, null));
+
+        List<Map<String, Object>> rows = todolistRepository.findFields(
+                Set.of("title", "status"), TodoStatus.PENDENTE, null, null, PageRequest.of(0, 10, Sort.by("id")));
+
+        //id sempre vem junto para montar o link da tarefa
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "title", "status");
+        assertThat(rows.get(0)).containsEntry("title", "Tarefa 1").containsEntry("status", TodoStatus.PENDENTE);
+    }
+
+    @Test
+    void shouldCreateStatusAndCreationDateIndexes() {
+        List<String> columns = jdbcTemplate.queryForList("""
+                select i.index_name || ':' || c.column_name
+                from information_schema.indexes i
+                join information_schema.index_columns c
+                  on c.index_name = i.index_name and c.table_name = i.table_name
+                where i.table_name = 'TODOLIST'
+                order by i.index_name, c.ordinal_position""", String.class);
+
+        assertThat(columns).contains(
+                "IDX_TODOLIST_STATUS_ID:STATUS",
+                "IDX_TODOLIST_STATUS_ID:ID",
+                "IDX_TODOLIST_CREATION_DATE:CREATION_DATE");
+    }
+
+    @Test
+    void shouldStoreStatusByName() {
+        Todolist saved = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.EM_ANDAMENTO, null, null));
+
+        String status = jdbcTemplate.queryForObject("select status from todolist where id = ?", String.class, saved.getId());
+
+        assertThat(status).isEqualTo("EM_ANDAMENTO");
+    }
+
+    @Test
+    void shouldReturnPreviousStatus_WhenUpdateWritesTheRow() {
+        Todolist saved = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        Optional<TodolistRepository.Previous> previous = todolistRepository.updateById(saved.getId(), "Tarefa 2", null,
+                TodoStatus.CONCLUIDA, null, null);
+
+        Todolist updated = todolistRepository.findById(saved.getId()).get();
+        assertThat(previous).contains(new TodolistRepository.Previous(TodoStatus.PENDENTE, saved.getVersion()));
+        assertThat(updated.getTitle()).isEqualTo("Tarefa 2");
+        assertThat(updated.getDescription()).isNull();
+        assertThat(updated.getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+        assertThat(updated.getVersion()).isEqualTo(saved.getVersion() + 1);
+    }
+
+    @Test
+    void shouldLeaveRowAlone_WhenVersionIsStaleOrTaskIsMissing() {
+        Todolist saved = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        assertThat(todolistRepository.updateByIdAndVersion(saved.getId(), saved.getVersion() + 5, "Outra", null,
+                TodoStatus.CONCLUIDA, null, null)).isEmpty();
+        assertThat(todolistRepository.updateById(-1L, "Outra", null, TodoStatus.CONCLUIDA, null, null)).isEmpty();
+        assertThat(todolistRepository.removeById(-1L)).isEmpty();
+
+        Todolist unchanged = todolistRepository.findById(saved.getId()).get();
+        assertThat(unchanged.getTitle()).isEqualTo("Tarefa 1");
+        assertThat(unchanged.getVersion()).isEqualTo(saved.getVersion());
+    }
+
+    @Test
+    void shouldReturnPreviousStatus_WhenPatchingAndRemoving() {
+        Todolist saved = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.EM_ANDAMENTO, null, null));
+        TodolistPatch patch = new TodolistPatch();
+        patch.setDescription("Nova descricao");
+
+        assertThat(todolistRepository.patchById(saved.getId(), patch)).contains(TodoStatus.EM_ANDAMENTO);
+        assertThat(todolistRepository.patchById(saved.getId(), new TodolistPatch())).contains(TodoStatus.EM_ANDAMENTO);
+        assertThat(todolistRepository.findById(saved.getId()).get().getDescription()).isEqualTo("Nova descricao");
+
+        assertThat(todolistRepository.removeById(saved.getId())).contains(TodoStatus.EM_ANDAMENTO);
+        assertThat(todolistRepository.findById(saved.getId())).isEmpty();
+    }
+
+    @Test
+    void shouldTransitionOnlyRowsWithAllowedStatus() {
+        Todolist pending = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist started = todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.EM_ANDAMENTO, null, null));
+        Todolist done = todolistRepository.save(new Todolist(null, "Tarefa 3", "Descricao", TodoStatus.CONCLUIDA, null, null));
+        LocalDateTime conclusionDate = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        Map<Long, TodoStatus> previous = todolistRepository.transition(
+                List.of(pending.getId(), started.getId(), done.getId(), -1L), TodoStatus.CONCLUIDA.previous(),
+                TodoStatus.CONCLUIDA, conclusionDate);
+
+        assertThat(previous).containsOnly(
+                Map.entry(pending.getId(), TodoStatus.PENDENTE),
+                Map.entry(started.getId(), TodoStatus.EM_ANDAMENTO));
+        assertThat(todolistRepository.findById(pending.getId()).get().getConclusionDate()).isEqualTo(conclusionDate);
+        assertThat(todolistRepository.findById(done.getId()).get().getVersion()).isEqualTo(done.getVersion());
+    }
 }
@@ -0,0 +1,134 @@
+package challenges.challenge02_todolist.responsecache;
+
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import challenges.challenge02_todolist.services.TodolistService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "user", password = "1", roles = {"USER"})
+public class TodolistResponseCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    @Autowired
+    private TodolistService service;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        todolistRepository.deleteAll();
+    }
+
+    @Test
+    void shouldServeRepeatedPageFromCache() throws Exception {
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        String first = mockMvc.perform(get("/tarefas?page=0&size=5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        double hits = hits();
+
+        //mesma pagina com os parametros em outra ordem
+        MvcResult second = mockMvc.perform(get("/tarefas?size=5&page=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/hal+json"))
+                .andReturn();
+
+        assertThat(second.getResponse().getContentAsString()).isEqualTo(first);
+        assertThat(hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void shouldKeepOneEntryPerForwardedHost() throws Exception {
+        todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+
+        mockMvc.perform(get("/tarefas?size=5").header("X-Forwarded-Host", "a.example.com"))
+                .andExpect(jsonPath("$._links.self.href").value(startsWith("http://a.example.com/tarefas")));
+        double hits = hits();
+
+        //mesma pagina por outro host do proxy: links proprios, nao os da entrada de a.example.com
+        mockMvc.perform(get("/tarefas?size=5").header("X-Forwarded-Host", "b.example.com"))
+                .andExpect(jsonPath("$._links.self.href").value(startsWith("http://b.example.com/tarefas")))
+                .andExpect(jsonPath("$._embedded.todolistList[0]._links.self.href").value(startsWith("http://b.example.com/tarefas/")));
+        mockMvc.perform(get("/tarefas?size=5").header("Forwarded", "host=c.example.com;proto=https"))
+                .andExpect(jsonPath("$._links.self.href").value(startsWith("https://c.example.com/tarefas")));
+        assertThat(hits()).isEqualTo(hits);
+
+        mockMvc.perform(get("/tarefas?size=5").header("X-Forwarded-Host", "b.example.com"))
+                .andExpect(jsonPath("$._links.self.href").value(startsWith("http://b.example.com/tarefas")));
+        assertThat(hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void shouldInvalidatePages_WhenTasksAreWritten() throws Exception {
+        Todolist task = todolistRepository.save(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(jsonPath("$.page.totalElements").value(1));
+
+        //insert
+        service.insert(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(jsonPath("$.page.totalElements").value(2));
+
+        //patch em SQL nativo, fora dos callbacks do JPA
+        TodolistPatch patch = new TodolistPatch();
+        patch.setTitle("Comprar pao");
+        service.patch(task.getId(), patch);
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(jsonPath("$._embedded.todolistList[0].title").value("Comprar pao"));
+
+        //delete
+        service.delete(task.getId());
+        mockMvc.perform(get("/tarefas?size=5")).andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    void shouldServeGzip_WhenClientAcceptsIt() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            todolistRepository.save(new Todolist(null, "Tarefa " + i, "Descricao da tarefa " + i, TodoStatus.PENDENTE, null, null));
+        }
+        String plain = mockMvc.perform(get("/tarefas?size=20"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsString();
+
+        byte[] gzipped = mockMvc.perform(get("/tarefas?size=20").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(new String(in.readAllBytes())).isEqualTo(plain);
+        }
+        assertThat(gzipped.length).isLessThan(plain.length());
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "todolist.responses").tag("result", "hit")
+                .functionCounter().count();
+    }
+}
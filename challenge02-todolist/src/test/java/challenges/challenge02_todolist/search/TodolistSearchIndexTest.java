@@ -0,0 +1,52 @@
+package challenges.challenge02_todolist.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TodolistSearchIndexTest {
+
+    private TodolistSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodolistSearchIndex();
+        index.index(1L, "Comprar pao", "Ir a padaria");
+        index.index(2L, "Estudar Spring", "Revisar paginação");
+        index.index(3L, "Pagar contas", "Água e luz");
+    }
+
+    @Test
+    void shouldMatchSubstring_IgnoringCaseAndAccents() {
+        assertThat(index.search("PADARIA", Sort.Direction.ASC)).containsExactly(1L);
+        assertThat(index.search("agua", Sort.Direction.ASC)).containsExactly(3L);
+        assertThat(index.search("ginac", Sort.Direction.ASC)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldRankTitlePrefixBeforeDescriptionMatches() {
+        assertThat(index.search("pa", Sort.Direction.ASC)).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void shouldReflectUpdatesAndRemovals() {
+        index.index(1L, "Comprar leite", null);
+        assertThat(index.search("pao", Sort.Direction.ASC)).isEmpty();
+        assertThat(index.search("leite", Sort.Direction.ASC)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("leite", Sort.Direction.ASC)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepIndexedDescription_WhenMergingOnlyTitle() {
+        index.merge(1L, "Comprar leite", null);
+
+        assertThat(index.search("leite", Sort.Direction.ASC)).containsExactly(1L);
+        assertThat(index.search("padaria", Sort.Direction.ASC)).containsExactly(1L);
+        assertThat(index.search("pao", Sort.Direction.ASC)).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package challenges.challenge02_todolist.services;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class TodolistServiceCacheIntegrationTest {
+
+    @Autowired
+    private TodolistService todolistService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private CaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = (CaffeineCache) cacheManager.getCache("tasks");
+        cache.clear();
+    }
+
+    private CacheStats stats() {
+        return cache.getNativeCache().stats();
+    }
+
+    @Test
+    void shouldServeFindByIdFromCache() {
+        Todolist savedTask = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        cache.clear();
+        CacheStats before = stats();
+
+        todolistService.findById(savedTask.getId());
+        todolistService.findById(savedTask.getId());
+
+        CacheStats after = stats().minus(before);
+        assertThat(after.missCount()).isEqualTo(1);
+        assertThat(after.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplaceCachedTask_WhenUpdated() {
+        Todolist savedTask = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        todolistService.findById(savedTask.getId());
+
+        todolistService.update(savedTask.getId(), new Todolist(null, "Tarefa atualizada", null, TodoStatus.CONCLUIDA, null, null), null);
+
+        Todolist foundTask = todolistService.findById(savedTask.getId());
+        assertThat(foundTask.getTitle()).isEqualTo("Tarefa atualizada");
+        assertThat(foundTask.getDescription()).isNull();
+        assertThat(foundTask.getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+        assertThat(foundTask.getVersion()).isEqualTo(savedTask.getVersion() + 1);
+    }
+
+    @Test
+    void shouldEvictCachedTask_WhenDeleted() {
+        Todolist savedTask = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        todolistService.findById(savedTask.getId());
+
+        todolistService.delete(savedTask.getId());
+
+        assertThat(cache.get(savedTask.getId())).isNull();
+        assertThrows(RuntimeException.class, () -> todolistService.findById(savedTask.getId()));
+    }
+}
@@ -0,0 +1,146 @@
+package challenges.challenge02_todolist.services;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// LOCK_TIMEOUT curto: um escritor que espere por uma trava mais que isso recebe erro de lock em vez de
+// simplesmente demorar, entao qualquer bloqueio faz o teste falhar
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:concurrency;LOCK_TIMEOUT="
+        + TodolistServiceConcurrencyIntegrationTest.LOCK_TIMEOUT_MS)
+public class TodolistServiceConcurrencyIntegrationTest {
+
+    static final long LOCK_TIMEOUT_MS = 250;
+
+    private static final int WRITERS = 8;
+    private static final int INCREMENTS_PER_WRITER = 25;
+
+    @Autowired
+    private TodolistService todolistService;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        todolistRepository.deleteAll();
+    }
+
+    @Test
+    void shouldNotLoseUpdates_WhenManyWritersUseIfMatch() throws Exception {
+        Long id = todolistService.insert(new Todolist(null, "Contador", "0", TodoStatus.PENDENTE, null, null)).getId();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < INCREMENTS_PER_WRITER; i++) {
+                    // le-modifica-escreve com a versao lida, como um cliente que manda If-Match
+                    while (true) {
+                        Todolist current = todolistService.findById(id);
+                        int value = Integer.parseInt(current.getDescription());
+                        Todolist next = new Todolist(null, current.getTitle(), String.valueOf(value + 1),
+                                current.getStatus(), current.getCreationDate(), current.getConclusionDate());
+                        try {
+                            todolistService.update(id, next, current.getVersion());
+                            break;
+                        } catch (OptimisticLockingFailureException e) {
+                            // outro escritor venceu: le de novo e tenta com a versao nova
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        for (Future<?> writer : writers) {
+            // a unica espera e pelo UPDATE de outro escritor ate o commit dele; uma espera maior que o
+            // LOCK_TIMEOUT aparece aqui como erro de lock e falha o teste
+            writer.get();
+        }
+
+        Todolist task = todolistRepository.findById(id).orElseThrow();
+        int total = WRITERS * INCREMENTS_PER_WRITER;
+        assertThat(task.getDescription()).isEqualTo(String.valueOf(total));
+        assertThat(task.getVersion()).isEqualTo(total);
+    }
+
+    @Test
+    void shouldNotHoldRowLock_WhenConditionalPutLosesVersionRace() throws Exception {
+        Todolist task = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist next = new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.EM_ANDAMENTO, null, null);
+
+        // o perdedor fica com a transacao aberta enquanto o vencedor escreve na mesma tarefa
+        assertWriterNotBlocked(() -> {
+            try {
+                todolistService.update(task.getId(), next, task.getVersion() + 1);
+            } catch (OptimisticLockingFailureException e) {
+                // esperado: versao errada
+            }
+        }, () -> todolistService.update(task.getId(), next, task.getVersion()));
+
+        assertThat(todolistRepository.findById(task.getId()).get().getTitle()).isEqualTo("Tarefa 2");
+    }
+
+    @Test
+    void shouldNotHoldRowLock_OnTasksSkippedByTransition() throws Exception {
+        Todolist done = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.CONCLUIDA, null, null));
+        Todolist next = new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.CONCLUIDA, null, null);
+
+        // a tarefa ja concluida fica de fora da transicao, entao nao pode ficar travada ate o commit dela
+        assertWriterNotBlocked(
+                () -> assertThat(todolistService.transition(List.of(done.getId()), TodoStatus.CONCLUIDA).updated()).isZero(),
+                () -> todolistService.update(done.getId(), next, done.getVersion()));
+    }
+
+    // roda "open" numa transacao que so termina depois de "writer" concluir em outra thread
+    private void assertWriterNotBlocked(Runnable open, Runnable writer) throws Exception {
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+            open.run();
+            opened.countDown();
+            try {
+                written.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            tx.setRollbackOnly();
+        }));
+        try {
+            assertThat(opened.await(10, TimeUnit.SECONDS)).isTrue();
+            long start = System.nanoTime();
+            // com uma trava pendente aqui, o UPDATE esperaria o LOCK_TIMEOUT e falharia com erro de lock
+            writer.run();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(LOCK_TIMEOUT_MS);
+        } finally {
+            written.countDown();
+        }
+        holder.get(10, TimeUnit.SECONDS);
+    }
+}
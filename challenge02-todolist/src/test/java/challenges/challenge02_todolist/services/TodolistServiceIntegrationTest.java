@@ -1,5 +1,9 @@
 package challenges.challenge02_todolist.services;
 
+import challenges.challenge02_todolist.counters.TodolistStatusCounters;
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.dto.TodolistTransitionResponse;
 import challenges.challenge02_todolist.models.Todolist;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
 import challenges.challenge02_todolist.repositories.TodolistRepository;
@@ -13,6 +17,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -25,6 +32,11 @@ public class TodolistServiceIntegrationTest {
     @Autowired
     private TodolistRepository todolistRepository;
 
+    @Autowired
+    private TodolistStatusCounters statusCounters;
+
+    private final long[] baseline = new long[TodoStatus.values().length];
+
     private Pageable pageable;
     private Page<Todolist> page;
 
@@ -43,12 +55,12 @@ public class TodolistServiceIntegrationTest {
         todolistService.insert(task1);
         todolistService.insert(task2);
 
-        PagedModel<EntityModel<Todolist>> result = todolistService.findAll(pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = todolistService.findAll(pageable, null);
 
         assertThat(result).hasSize(2);
         assertThat(result).isNotNull();
         result.getContent().forEach(taskModel -> {
-            Todolist task = taskModel.getContent();
+            TodolistResponse task = (TodolistResponse) taskModel.getContent();
             if (task.getTitle().equals("Tarefa 1")) {
                 assertThat(task.getTitle()).isEqualTo("Tarefa 1");
                 assertThat(task.getDescription()).isEqualTo("Descricao");
@@ -70,12 +82,12 @@ public class TodolistServiceIntegrationTest {
         todolistService.insert(task1);
         todolistService.insert(task2);
 
-        PagedModel<EntityModel<Todolist>> result = todolistService.findByTitle("Tarefa", pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = todolistService.findByTitle("Tarefa", pageable, null);
 
         assertThat(result).hasSize(2);
         assertThat(result).isNotNull();
         result.getContent().forEach(taskModel -> {
-            Todolist task = taskModel.getContent();
+            TodolistResponse task = (TodolistResponse) taskModel.getContent();
             if (task.getTitle().equals("Tarefa 1")) {
                 assertThat(task.getTitle()).isEqualTo("Tarefa 1");
                 assertThat(task.getDescription()).isEqualTo("Descricao");
@@ -96,12 +108,12 @@ public class TodolistServiceIntegrationTest {
         todolistService.insert(task1);
         todolistService.insert(task2);
 
-        PagedModel<EntityModel<Todolist>> result = todolistService.findByStatus(TodoStatus.PENDENTE, pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = todolistService.findByStatus(TodoStatus.PENDENTE, pageable, null);
 
         assertThat(result).hasSize(1);
         assertThat(result).isNotNull();
         result.getContent().forEach(taskModel -> {
-            Todolist task = taskModel.getContent();
+            TodolistResponse task = (TodolistResponse) taskModel.getContent();
                 assertThat(task.getTitle()).isEqualTo("Tarefa 1");
                 assertThat(task.getDescription()).isEqualTo("Descricao");
                 assertThat(task.getStatus()).isEqualTo(TodoStatus.PENDENTE);
@@ -138,7 +150,7 @@ public class TodolistServiceIntegrationTest {
         Todolist savedTask = todolistService.insert(newTask);
 
         Todolist updatedTask = new Todolist(savedTask.getId(), "Tarefa atualizada", "Descricao atualizada", TodoStatus.CONCLUIDA, null, null);
-        todolistService.update(savedTask.getId(), updatedTask);
+        todolistService.update(savedTask.getId(), updatedTask, null);
 
         //Buscar novamente o savedTask atualizado
         Todolist foundTask = todolistService.findById(savedTask.getId());
@@ -162,4 +174,75 @@ public class TodolistServiceIntegrationTest {
 
         assertThat(todolistRepository.findById(savedTask.getId())).isEmpty();
     }
+
+    @Test
+    void shouldTransitionOnlyTasksWithLegalPreviousStatus() {
+        Todolist pending = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist started = todolistService.insert(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.EM_ANDAMENTO, null, null));
+        Todolist done = todolistService.insert(new Todolist(null, "Tarefa 3", "Descricao", TodoStatus.CONCLUIDA, null, null));
+        // deixa a tarefa no cache, a transicao precisa invalidar
+        todolistService.findById(pending.getId());
+        long started0 = statusCounters.count(TodoStatus.EM_ANDAMENTO);
+
+        TodolistTransitionResponse response = todolistService.transition(
+                List.of(pending.getId(), started.getId(), pending.getId(), -1L), TodoStatus.EM_ANDAMENTO);
+
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.skipped()).containsExactly(
+                new TodolistTransitionResponse.Skipped(started.getId(), TodoStatus.EM_ANDAMENTO, "Transicao invalida"),
+                new TodolistTransitionResponse.Skipped(-1L, null, "Tarefa nao encontrada"));
+        assertThat(todolistService.findById(pending.getId()).getStatus()).isEqualTo(TodoStatus.EM_ANDAMENTO);
+        assertThat(todolistRepository.findById(done.getId()).get().getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+        assertThat(statusCounters.count(TodoStatus.EM_ANDAMENTO)).isEqualTo(started0 + 1);
+    }
+
+    @Test
+    void shouldMoveStatusCounters_OnEveryWritePath() {
+        for (TodoStatus status : TodoStatus.values()) {
+            baseline[status.ordinal()] = statusCounters.count(status);
+        }
+        Todolist task = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.PENDENTE, null, null));
+        Todolist other = todolistRepository.save(new Todolist(null, "Tarefa 2", "Descricao", TodoStatus.PENDENTE, null, null));
+        assertCounts(2, 0, 0);
+
+        todolistService.update(task.getId(), new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.EM_ANDAMENTO, null, null), null);
+        assertCounts(1, 1, 0);
+
+        TodolistPatch patch = new TodolistPatch();
+        patch.setStatus(TodoStatus.CONCLUIDA);
+        todolistService.patch(task.getId(), patch);
+        assertCounts(1, 0, 1);
+
+        //save pelo JPA: o status anterior vem do que foi lido do banco
+        Todolist loaded = todolistRepository.findById(other.getId()).get();
+        loaded.setStatus(TodoStatus.EM_ANDAMENTO);
+        todolistRepository.save(loaded);
+        assertCounts(0, 1, 1);
+
+        todolistService.delete(task.getId());
+        todolistRepository.deleteById(other.getId());
+        assertCounts(0, 0, 0);
+    }
+
+    // variacao em relacao ao inicio do teste
+    private void assertCounts(long pendente, long emAndamento, long concluida) {
+        assertThat(statusCounters.count(TodoStatus.PENDENTE) - baseline[0]).isEqualTo(pendente);
+        assertThat(statusCounters.count(TodoStatus.EM_ANDAMENTO) - baseline[1]).isEqualTo(emAndamento);
+        assertThat(statusCounters.count(TodoStatus.CONCLUIDA) - baseline[2]).isEqualTo(concluida);
+    }
+
+    @Test
+    void shouldStampConclusionDateAndBumpVersion_WhenTransitionIsToConcluida() {
+        Todolist task = todolistService.insert(new Todolist(null, "Tarefa 1", "Descricao", TodoStatus.EM_ANDAMENTO, null, null));
+        Long version = todolistRepository.findById(task.getId()).get().getVersion();
+
+        TodolistTransitionResponse response = todolistService.transition(List.of(task.getId()), TodoStatus.CONCLUIDA);
+
+        Todolist saved = todolistRepository.findById(task.getId()).get();
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.skipped()).isEmpty();
+        assertThat(saved.getStatus()).isEqualTo(TodoStatus.CONCLUIDA);
+        assertThat(saved.getConclusionDate()).isNotNull();
+        assertThat(saved.getVersion()).isGreaterThan(version);
+    }
 }
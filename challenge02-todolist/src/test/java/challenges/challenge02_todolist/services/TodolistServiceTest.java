@@ -1,25 +1,41 @@
 package challenges.challenge02_todolist.services;
 
+import challenges.challenge02_todolist.controllers.TodolistLinks;
+import challenges.challenge02_todolist.counters.TodolistStatusCounters;
+import challenges.challenge02_todolist.dto.TodolistPatch;
+import challenges.challenge02_todolist.dto.TodolistResponse;
+import challenges.challenge02_todolist.events.TodolistEventFeed;
+import challenges.challenge02_todolist.mappers.TodolistMapper;
 import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.TodolistSliceModel;
 import challenges.challenge02_todolist.models.enums.TodoStatus;
 import challenges.challenge02_todolist.repositories.TodolistRepository;
+import challenges.challenge02_todolist.responsecache.TodolistResponseCache;
+import challenges.challenge02_todolist.search.TodolistSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class TodolistServiceTest {
@@ -28,7 +44,25 @@ public class TodolistServiceTest {
     private TodolistRepository repository;
 
     @Mock
-    PagedResourcesAssembler<Todolist> assembler;
+    PagedResourcesAssembler<TodolistResponse> assembler;
+
+    @Mock
+    private TodolistSearchIndex searchIndex;
+
+    @Mock
+    private TodolistStatusCounters statusCounters;
+
+    @Mock
+    private TodolistResponseCache responseCache;
+
+    @Mock
+    private TodolistEventFeed events;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TodolistLinks links = new TodolistLinks();
 
     @InjectMocks
     private TodolistService service;
@@ -59,17 +93,17 @@ public class TodolistServiceTest {
         when(repository.findAll(pageable)).thenReturn(page);
 
         // Mockando o comportamento do PagedResourcesAssembler
-        PagedModel<EntityModel<Todolist>> mockPagedModel = mock(PagedModel.class);
+        PagedModel<EntityModel<TodolistResponse>> mockPagedModel = mock(PagedModel.class);
         when(assembler.toModel(any(Page.class), any(Link.class))).thenReturn(mockPagedModel);
 
         // Aqui estamos garantindo que o mockPagedModel tenha conteúdo
         when(mockPagedModel.getContent()).thenReturn(List.of(
-                EntityModel.of(createTestTask(1L)),
-                EntityModel.of(createTestTask(2L))
+                EntityModel.of(TodolistMapper.toResponse(createTestTask(1L))),
+                EntityModel.of(TodolistMapper.toResponse(createTestTask(2L)))
         ));
 
         //Chamando o metodo do serviço
-        PagedModel<EntityModel<Todolist>> result = service.findAll(pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = service.findAll(pageable, null);
 
         // Verificando se o repositório foi chamado corretamente
         verify(repository, times(1)).findAll(pageable);
@@ -85,7 +119,7 @@ public class TodolistServiceTest {
 
         // Verificando os campos das tarefas
         result.getContent().forEach(taskModel -> {
-            Todolist task = taskModel.getContent();
+            TodolistResponse task = (TodolistResponse) taskModel.getContent();
             if (task.getTitle().equals("Tarefa 1")) {
                 assertEquals("Tarefa 1", task.getTitle());
                 assertEquals("Iniciando Tarefa Teste 1", task.getDescription());
@@ -103,10 +137,10 @@ public class TodolistServiceTest {
     void shouldReturnEmptyPageFindAll_WhenDataNonExists() {
         when(repository.findAll(pageable)).thenReturn(Page.empty(pageable));
 
-        PagedModel<EntityModel<Todolist>> mockPagedModel = mock(PagedModel.class);
+        PagedModel<EntityModel<TodolistResponse>> mockPagedModel = mock(PagedModel.class);
         when(assembler.toModel(any(Page.class), any(Link.class))).thenReturn(mockPagedModel);
 
-        PagedModel<EntityModel<Todolist>> result = service.findAll(pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = service.findAll(pageable, null);
 
         verify(repository, times(1)).findAll(pageable);
 
@@ -120,19 +154,22 @@ public class TodolistServiceTest {
 
     @Test
     void shouldReturnTasks_WhenTitleMatches(){
-        when(repository.findByTitleContaining("Tarefa", pageable)).thenReturn(page);
+        when(searchIndex.search("Tarefa", Sort.Direction.ASC)).thenReturn(List.of(1L, 2L));
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(createTestTask(2L), createTestTask(1L)));
 
-        PagedModel<EntityModel<Todolist>> mockPagedModel = mock(PagedModel.class);
+        PagedModel<EntityModel<TodolistResponse>> mockPagedModel = mock(PagedModel.class);
         when(assembler.toModel(any(Page.class), any(Link.class))).thenReturn(mockPagedModel);
 
         when(mockPagedModel.getContent()).thenReturn(List.of(
-                EntityModel.of(createTestTask(1L)),
-                EntityModel.of(createTestTask(2L))
+                EntityModel.of(TodolistMapper.toResponse(createTestTask(1L))),
+                EntityModel.of(TodolistMapper.toResponse(createTestTask(2L)))
         ));
 
-        PagedModel<EntityModel<Todolist>> result = service.findByTitle("Tarefa", pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = service.findByTitle("Tarefa", pageable, null);
 
-        verify(repository, times(1)).findByTitleContaining("Tarefa", pageable);
+        verify(searchIndex, times(1)).search("Tarefa", Sort.Direction.ASC);
+        verify(repository, times(1)).findAllById(List.of(1L, 2L));
+        verify(repository, never()).findByTitleContaining(any(), any(Pageable.class));
 
         verify(assembler, times(1)).toModel(any(Page.class), any(Link.class));
 
@@ -141,7 +178,7 @@ public class TodolistServiceTest {
         assertTrue(result.getContent().size() > 0);
 
         result.getContent().forEach(taskModel -> {
-            Todolist task = taskModel.getContent();
+            TodolistResponse task = (TodolistResponse) taskModel.getContent();
             if (task.getTitle().equals("Tarefa 1")) {
                 assertEquals("Tarefa 1", task.getTitle());
                 assertEquals("Iniciando Tarefa Teste 1", task.getDescription());
@@ -156,19 +193,21 @@ public class TodolistServiceTest {
 
     @Test
     void shouldReturnTasks_WhenStatusMatches(){
-        when(repository.findByStatus(TodoStatus.PENDENTE, pageable)).thenReturn(page);
+        when(repository.findSliceByStatus(TodoStatus.PENDENTE, pageable)).thenReturn(page);
+        when(statusCounters.count(TodoStatus.PENDENTE)).thenReturn(2L);
 
-        PagedModel<EntityModel<Todolist>> mockPagedModel = mock(PagedModel.class);
+        PagedModel<EntityModel<TodolistResponse>> mockPagedModel = mock(PagedModel.class);
         when(assembler.toModel(any(Page.class), any(Link.class))).thenReturn(mockPagedModel);
 
         when(mockPagedModel.getContent()).thenReturn(List.of(
-                EntityModel.of(createTestTask(1L)),
-                EntityModel.of(createTestTask(2L))
+                EntityModel.of(TodolistMapper.toResponse(createTestTask(1L))),
+                EntityModel.of(TodolistMapper.toResponse(createTestTask(2L)))
         ));
 
-        PagedModel<EntityModel<Todolist>> result = service.findByStatus(TodoStatus.PENDENTE, pageable);
+        PagedModel<EntityModel<RepresentationModel<?>>> result = service.findByStatus(TodoStatus.PENDENTE, pageable, null);
 
-        verify(repository, times(1)).findByStatus(TodoStatus.PENDENTE, pageable);
+        verify(repository, times(1)).findSliceByStatus(TodoStatus.PENDENTE, pageable);
+        verify(repository, never()).findByStatus(any(), any(Pageable.class));
 
         verify(assembler, times(1)).toModel(any(Page.class), any(Link.class));
 
@@ -177,7 +216,7 @@ public class TodolistServiceTest {
         assertTrue(result.getContent().size() > 0);
 
         result.getContent().forEach(taskModel -> {
-            Todolist task = taskModel.getContent();
+            TodolistResponse task = (TodolistResponse) taskModel.getContent();
             if (task.getTitle().equals("Tarefa 1")) {
                 assertEquals("Tarefa 1", task.getTitle());
                 assertEquals("Iniciando Tarefa Teste 1", task.getDescription());
@@ -191,6 +230,21 @@ public class TodolistServiceTest {
     }
 
 
+    @Test
+    void shouldSeekWithoutCounting_WhenTotalsNotRequested() {
+        Slice<Todolist> slice = new SliceImpl<>(List.of(createTestTask(2L), createTestTask(3L)), PageRequest.of(0, 2), true);
+        when(repository.findByStatusAndIdGreaterThan(eq(TodoStatus.PENDENTE), eq(1L), any(Pageable.class))).thenReturn(slice);
+
+        TodolistSliceModel<RepresentationModel<?>> result = service.findByStatus(TodoStatus.PENDENTE, 1L, null, 2, false, null);
+
+        assertEquals(2, result.getContent().size());
+        assertNull(result.getTotalElements());
+        assertTrue(result.getLink("next").isPresent());
+        assertEquals("/tarefas/2", result.getContent().iterator().next().getContent().getRequiredLink("self").getHref());
+        verify(statusCounters, never()).count(any());
+        verify(repository, never()).findByStatus(any(), any(Pageable.class));
+    }
+
     @Test
     void shouldReturnTaskById() {
         Todolist task = createTestTask(1L);
@@ -266,20 +320,26 @@ public class TodolistServiceTest {
         updatedTask.setCreationDate(LocalDateTime.now());
         updatedTask.setConclusionDate(LocalDateTime.now().plusDays(1));
 
-        when(repository.existsById(taskId)).thenReturn(true);
-        when(repository.save(updatedTask)).thenReturn(updatedTask);
+        when(repository.updateById(taskId, updatedTask.getTitle(), updatedTask.getDescription(), updatedTask.getStatus(),
+                updatedTask.getCreationDate(), updatedTask.getConclusionDate()))
+                .thenReturn(Optional.of(new TodolistRepository.Previous(TodoStatus.PENDENTE, 2L)));
 
-        Todolist result = service.update(taskId, updatedTask);
+        Todolist result = service.update(taskId, updatedTask, null);
 
         assertNotNull(result);
+        assertEquals(3L, result.getVersion());
         assertEquals(updatedTask.getTitle(), result.getTitle());
         assertEquals(updatedTask.getDescription(), result.getDescription());
         assertEquals(updatedTask.getStatus(), result.getStatus());
         assertEquals(updatedTask.getCreationDate(), result.getCreationDate());
         assertEquals(updatedTask.getConclusionDate(), result.getConclusionDate());
 
-        verify(repository, times(1)).existsById(taskId);
-        verify(repository, times(1)).save(updatedTask);
+        // a versao nova sai do proprio UPDATE: nem existsById nem releitura
+        verify(repository, never()).existsById(taskId);
+        verify(repository, never()).findById(taskId);
+        verify(repository, never()).save(any(Todolist.class));
+        verify(searchIndex, times(1)).index(taskId, updatedTask.getTitle(), updatedTask.getDescription());
+        verify(statusCounters, times(1)).move(TodoStatus.PENDENTE, TodoStatus.EM_ANDAMENTO);
     }
 
 
@@ -294,37 +354,94 @@ public class TodolistServiceTest {
         updatedTask.setCreationDate(LocalDateTime.now());
         updatedTask.setConclusionDate(LocalDateTime.now().plusDays(1));
 
-        when(repository.existsById(taskId)).thenReturn(false);
+        when(repository.updateById(eq(taskId), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            service.update(taskId, updatedTask);
+            service.update(taskId, updatedTask, null);
         });
 
         assertEquals("Tarefa nao encontrada", exception.getMessage());
 
+        // sem versao esperada, nenhuma linha alterada so pode ser tarefa inexistente
+        verify(repository, never()).existsById(taskId);
+
         verify(repository, times(0)).save(updatedTask);
-        verify(repository, times(1)).existsById(taskId);
+        verify(searchIndex, never()).index(any(), any(), any());
 
     }
 
+    @Test
+    void shouldUpdateTask_WhenExpectedVersionIsCurrent() {
+        Todolist updatedTask = createTestTask(1L);
+
+        when(repository.updateByIdAndVersion(1L, 4L, updatedTask.getTitle(), updatedTask.getDescription(),
+                updatedTask.getStatus(), updatedTask.getCreationDate(), updatedTask.getConclusionDate()))
+                .thenReturn(Optional.of(new TodolistRepository.Previous(TodoStatus.PENDENTE, 4L)));
+
+        Todolist result = service.update(1L, updatedTask, 4L);
+
+        assertEquals(5L, result.getVersion());
+        verify(repository, never()).updateById(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldThrowOptimisticLockingFailure_WhenExpectedVersionIsStale() {
+        Todolist updatedTask = createTestTask(1L);
+
+        when(repository.updateByIdAndVersion(eq(1L), eq(4L), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> service.update(1L, updatedTask, 4L));
+
+        verify(searchIndex, never()).index(any(), any(), any());
+        verify(statusCounters, never()).move(any(), any());
+    }
+
+    @Test
+    void shouldThrowNotFound_WhenExpectedVersionGivenForMissingTask() {
+        when(repository.updateByIdAndVersion(eq(1L), eq(4L), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.update(1L, createTestTask(1L), 4L));
+
+        assertEquals("Tarefa nao encontrada", exception.getMessage());
+    }
+
     @Test
     void shouldDeleteTask() {
         Long taskId = 1L;
 
-        when(repository.existsById(taskId)).thenReturn(true);
+        when(repository.removeById(taskId)).thenReturn(Optional.of(TodoStatus.CONCLUIDA));
 
         service.delete(taskId);
 
-        verify(repository, times(1)).deleteById(taskId);
+        verify(repository, times(1)).removeById(taskId);
+        verify(repository, never()).deleteById(taskId);
+        verify(searchIndex, times(1)).remove(taskId);
+        verify(statusCounters, times(1)).move(TodoStatus.CONCLUIDA, null);
+        verify(events, times(1)).publishDelete(taskId);
+    }
+
+    @Test
+    void shouldPublishStatusChange_WhenPatchChangesStatus() {
+        Long taskId = 1L;
+        TodolistPatch patch = new TodolistPatch();
+        patch.setStatus(TodoStatus.CONCLUIDA);
+
+        when(repository.patchById(taskId, patch)).thenReturn(Optional.of(TodoStatus.PENDENTE));
 
-        verify(repository, times(1)).existsById(taskId);
+        service.patch(taskId, patch);
+
+        verify(events, times(1)).publish(TodolistEventFeed.UPDATE, Map.of("id", taskId, "status", TodoStatus.CONCLUIDA));
+        verify(events, times(1)).publishStatus(taskId, TodoStatus.PENDENTE, TodoStatus.CONCLUIDA);
     }
 
     @Test
     void shouldThrowException_WhenTaskNotFoundToDelete() {
         Long taskId = 1L;
 
-        when(repository.existsById(taskId)).thenReturn(false);
+        when(repository.removeById(taskId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             service.delete(taskId);
@@ -333,8 +450,53 @@ public class TodolistServiceTest {
         assertEquals("Tarefa nao encontrada", exception.getMessage());
 
         verify(repository, times(0)).deleteById(taskId);
-        verify(repository, times(1)).existsById(taskId);
+        verify(searchIndex, never()).remove(taskId);
+
+    }
+
+    @Test
+    void shouldPatchOnlyGivenFields() {
+        Long taskId = 1L;
+        TodolistPatch patch = new TodolistPatch();
+        patch.setStatus(TodoStatus.CONCLUIDA);
+
+        when(repository.patchById(taskId, patch)).thenReturn(Optional.of(TodoStatus.EM_ANDAMENTO));
 
+        service.patch(taskId, patch);
+
+        verify(repository, times(1)).patchById(taskId, patch);
+        verify(repository, never()).findById(taskId);
+        // status nao entra no indice de busca, so nos contadores
+        verify(searchIndex, never()).merge(any(), any(), any());
+        verify(statusCounters, times(1)).move(TodoStatus.EM_ANDAMENTO, TodoStatus.CONCLUIDA);
+    }
+
+    @Test
+    void shouldReindexTitle_WhenPatchChangesTitle() {
+        Long taskId = 1L;
+        TodolistPatch patch = new TodolistPatch();
+        patch.setTitle("Novo titulo");
+
+        when(repository.patchById(taskId, patch)).thenReturn(Optional.of(TodoStatus.PENDENTE));
+
+        service.patch(taskId, patch);
+
+        verify(searchIndex, times(1)).merge(taskId, "Novo titulo", null);
+        // status fora do PATCH: os contadores ficam como estao
+        verify(statusCounters, never()).move(any(), any());
+    }
+
+    @Test
+    void shouldThrowException_WhenTaskNotFoundToPatch() {
+        TodolistPatch patch = new TodolistPatch();
+        patch.setTitle("Novo titulo");
+
+        when(repository.patchById(1L, patch)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> service.patch(1L, patch));
+
+        assertEquals("Tarefa nao encontrada", exception.getMessage());
+        verify(searchIndex, never()).merge(any(), any(), any());
     }
 
 }
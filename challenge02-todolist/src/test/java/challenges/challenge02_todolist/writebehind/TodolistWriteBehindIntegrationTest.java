@@ -0,0 +1,69 @@
+package challenges.challenge02_todolist.writebehind;
+
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "todolist.write-behind.enabled=true")
+@AutoConfigureMockMvc
+@WithMockUser(username = "user", password = "1", roles = {"USER"})
+public class TodolistWriteBehindIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodolistRepository todolistRepository;
+
+    @BeforeEach
+    void setUp() {
+        todolistRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAcceptAndRedirectToTaskOnceSaved() throws Exception {
+        String location = mockMvc.perform(post("/tarefas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Tarefa em lote\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.ticket").exists())
+                .andExpect(jsonPath("$._links.self.href").exists())
+                .andReturn().getResponse().getHeader("Location");
+        assertThat(location).contains("/tarefas/pendentes/");
+
+        int state = 0;
+        for (int attempt = 0; attempt < 50 && state != 303; attempt++) {
+            state = mockMvc.perform(get(location)).andReturn().getResponse().getStatus();
+            if (state != 303) {
+                Thread.sleep(20);
+            }
+        }
+        mockMvc.perform(get(location))
+                .andExpect(status().isSeeOther())
+                .andExpect(header().string("Location", containsString("/tarefas/")))
+                .andExpect(jsonPath("$.state").value("GRAVADA"))
+                .andExpect(jsonPath("$._links.tarefa.href").exists());
+
+        assertThat(todolistRepository.findAll()).extracting("title").containsExactly("Tarefa em lote");
+    }
+
+    @Test
+    void shouldReturnNotFound_WhenTicketIsUnknown() throws Exception {
+        mockMvc.perform(get("/tarefas/pendentes/desconhecido"))
+                .andExpect(status().isNotFound());
+    }
+}
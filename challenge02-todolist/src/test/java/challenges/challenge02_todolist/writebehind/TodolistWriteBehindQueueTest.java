@@ -0,0 +1,106 @@
+package challenges.challenge02_todolist.writebehind;
+
+import challenges.challenge02_todolist.models.Todolist;
+import challenges.challenge02_todolist.models.enums.TodoStatus;
+import challenges.challenge02_todolist.repositories.TodolistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TodolistWriteBehindQueueTest {
+
+    private final List<Todolist> saved = new ArrayList<>();
+    private final List<Integer> batches = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final CountDownLatch flushing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry registry;
+    private TodolistWriteBehindQueue queue;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        TodolistRepository repository = mock(TodolistRepository.class);
+        // o primeiro lote fica preso ate o teste liberar, para a fila encher atras dele
+        when(repository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            List<Todolist> batch = new ArrayList<>();
+            ((Iterable<Todolist>) invocation.getArgument(0)).forEach(batch::add);
+            for (Todolist task : batch) {
+                task.setId(ids.incrementAndGet());
+            }
+            synchronized (saved) {
+                saved.addAll(batch);
+                batches.add(batch.size());
+            }
+            return batch;
+        });
+        registry = new SimpleMeterRegistry();
+        queue = new TodolistWriteBehindQueue(repository, mock(PlatformTransactionManager.class), registry,
+                3, 10, Duration.ofMillis(10));
+        queue.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        queue.stop();
+    }
+
+    private Todolist task(int i) {
+        return new Todolist(null, "Tarefa " + i, null, null, null, null);
+    }
+
+    @Test
+    void shouldRejectWhenFull_AndFlushEverythingOnStop() throws Exception {
+        PendingTask first = queue.offer(task(0));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<PendingTask> waiting = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            waiting.add(queue.offer(task(i)));
+        }
+        assertThat(queue.depth()).isEqualTo(3);
+        assertThatThrownBy(() -> queue.offer(task(4))).isInstanceOf(TaskRejectedException.class);
+        assertThat(registry.get("todolist.writebehind.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("todolist.writebehind.depth").gauge().value()).isEqualTo(3);
+
+        release.countDown();
+        queue.stop();
+
+        // as tres que esperavam saem juntas, num unico lote
+        assertThat(batches).containsExactly(1, 3);
+        assertThat(saved).hasSize(4);
+        assertThat(first.getState()).isEqualTo(PendingTask.State.GRAVADA);
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(waiting).allSatisfy(pending -> assertThat(pending.getState()).isEqualTo(PendingTask.State.GRAVADA));
+        assertThat(saved).allSatisfy(task -> assertThat(task.getStatus()).isEqualTo(TodoStatus.PENDENTE));
+        assertThat(queue.find(first.getTicket())).isSameAs(first);
+    }
+
+    @Test
+    void shouldRejectAfterStop() {
+        release.countDown();
+        queue.stop();
+
+        assertThatThrownBy(() -> queue.offer(task(1))).isInstanceOf(TaskRejectedException.class);
+    }
+}
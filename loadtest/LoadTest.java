@@ -0,0 +1,141 @@
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Gerador de carga simples (sem dependencias), executado com: java loadtest/LoadTest.java <url> [opcoes]
+//   --concurrency=N   clientes simultaneos (padrao 200)
+//   --duration=S      duracao da medicao em segundos (padrao 30)
+//   --warmup=S        aquecimento em segundos, descartado (padrao 5)
+//   --login=URL       faz login por formulario antes (user/1) e usa o cookie de sessao
+//   --token=URL       pede um token Bearer (HTTP Basic user/1) e envia em cada requisicao; alternativa ao --login
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("uso: java loadtest/LoadTest.java <url> [--concurrency=N] [--duration=S] [--warmup=S] [--login=URL] [--token=URL]");
+            System.exit(1);
+        }
+        URI target = URI.create(args[0]);
+        int concurrency = intOption(args, "concurrency", 200);
+        int duration = intOption(args, "duration", 30);
+        int warmup = intOption(args, "warmup", 5);
+        String login = option(args, "login", null);
+        String tokenUrl = option(args, "token", null);
+
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        if (login != null) {
+            String form = "username=" + URLEncoder.encode("user", StandardCharsets.UTF_8) + "&password=1";
+            client.send(HttpRequest.newBuilder(URI.create(login))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(target).header("Accept", "application/json").GET();
+        if (tokenUrl != null) {
+            request.header("Authorization", "Bearer " + fetchToken(client, tokenUrl));
+        }
+
+        run(client, request.build(), concurrency, warmup, null);
+        Result result = new Result();
+        run(client, request.build(), concurrency, duration, result);
+        result.print(target, concurrency, duration);
+    }
+
+    private static String fetchToken(HttpClient client, String tokenUrl) throws Exception {
+        String basic = Base64.getEncoder().encodeToString("user:1".getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(tokenUrl))
+                .header("Authorization", "Basic " + basic)
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher token = Pattern.compile("\"access_token\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("nao foi possivel obter o token: HTTP " + response.statusCode());
+        }
+        return token.group(1);
+    }
+
+    private static void run(HttpClient client, HttpRequest request, int concurrency, int seconds, Result result) throws InterruptedException {
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400 && result != null) {
+                                result.errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            if (result != null) {
+                                result.errors.incrementAndGet();
+                            }
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    if (result != null) {
+                        result.add(latencies);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + name + "=")) {
+                return arg.substring(name.length() + 3);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static int intOption(String[] args, String name, int defaultValue) {
+        String value = option(args, name, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static class Result {
+        private final List<long[]> chunks = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(List<Long> latencies) {
+            chunks.add(latencies.stream().mapToLong(Long::longValue).toArray());
+        }
+
+        void print(URI target, int concurrency, int duration) {
+            long[] all = chunks.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            if (all.length == 0) {
+                System.out.println("nenhuma requisicao concluida");
+                return;
+            }
+            System.out.printf("%s concorrencia=%d requisicoes=%d erros=%d%n", target, concurrency, all.length, errors.get());
+            System.out.printf("throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    all.length / (double) duration, millis(all, 0.50), millis(all, 0.99), all[all.length - 1] / 1e6);
+        }
+
+        private static double millis(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
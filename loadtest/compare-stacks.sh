@@ -0,0 +1,47 @@
+#!/bin/sh
+# Compara a API /tarefas em MVC + JPA (challenge02-todolist) e em WebFlux + R2DBC (challenge02-todolist-reactive).
+# As duas aplicacoes recebem as mesmas tarefas antes da medicao; o token Bearer vem de /auth/token em cada uma.
+# Uso: loadtest/compare-stacks.sh [concorrencia] [duracao] [tarefas]
+set -e
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-200}
+DURATION=${2:-30}
+TASKS=${3:-500}
+BASE=http://localhost:8080
+
+token() {
+  curl -s -u user:1 -X POST "$BASE/auth/token" | sed 's/.*"access_token":"\([^"]*\)".*/\1/'
+}
+
+seed() {
+  bearer=$(token)
+  i=1
+  while [ "$i" -le "$TASKS" ]; do
+    case $((i % 3)) in
+      0) status=PENDENTE ;;
+      1) status=EM_ANDAMENTO ;;
+      *) status=CONCLUIDA ;;
+    esac
+    curl -s -o /dev/null -H "Authorization: Bearer $bearer" -H 'Content-Type: application/json' \
+      -d "{\"title\":\"Tarefa $i\",\"description\":\"Carga $i\",\"status\":\"$status\"}" "$BASE/tarefas"
+    i=$((i + 1))
+  done
+}
+
+run() {
+  module=$1; jar=$2
+  (cd "$module" && mvn -q -DskipTests package)
+  java -jar "$module/target/$jar" --server.port=8080 > "/tmp/$module-stacks.log" 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "$BASE/tarefas"; do sleep 1; done
+  seed
+  for path in "/tarefas?page=0&size=20" "/tarefas/status?status=PENDENTE&size=20" "/tarefas?after=0&size=20" \
+              "/tarefas/busca?title=tarefa%2010&size=20"; do
+    echo "== $module $path"
+    java loadtest/LoadTest.java "$BASE$path" --concurrency="$CONCURRENCY" --duration="$DURATION" --token="$BASE/auth/token"
+  done
+  kill $pid; wait $pid 2>/dev/null || true
+}
+
+run challenge02-todolist challenge02-todolist-0.0.1-SNAPSHOT.jar
+run challenge02-todolist-reactive challenge02-todolist-reactive-0.0.1-SNAPSHOT.jar
@@ -0,0 +1,23 @@
+#!/bin/sh
+# Compara threads de plataforma e threads virtuais para os dois servicos.
+# Uso: loadtest/compare-threads.sh [concorrencia] [duracao]
+set -e
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-200}
+DURATION=${2:-30}
+
+run() {
+  module=$1; jar=$2; path=$3; login=$4; profile=$5
+  (cd "$module" && mvn -q -DskipTests package)
+  java -jar "$module/target/$jar" --spring.profiles.active="$profile" --server.port=8080 > "/tmp/$module-$profile.log" 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "http://localhost:8080$path"; do sleep 1; done
+  echo "== $module perfil=$profile"
+  java loadtest/LoadTest.java "http://localhost:8080$path" --concurrency="$CONCURRENCY" --duration="$DURATION" $login
+  kill $pid; wait $pid 2>/dev/null || true
+}
+
+for profile in default virtual; do
+  run challenge01-book challenge01-0.0.1-SNAPSHOT.jar /livros "" $profile
+  run challenge02-todolist challenge02-todolist-0.0.1-SNAPSHOT.jar /tarefas "--token=http://localhost:8080/auth/token" $profile
+done